@@ -1,5 +1,7 @@
 import { createContext, useContext, useEffect, useState } from 'react';
 import useGetMe from './common/utils/customHooks/useGetMe';
+import useDecryptToken from './common/utils/customHooks/useDecryptToken';
+import { ACCESS_TOKEN } from './common/constants';
 
 const WebSocketContext = createContext<WebSocket | null>(null);
 
@@ -12,10 +14,15 @@ type WebSocketProviderProps = {
 export const WebSocketProvider = ({ children }: WebSocketProviderProps) => {
   const [webSocket, setWebSocket] = useState<WebSocket | null>(null);
   const { data: userData } = useGetMe();
+  const decrypt = useDecryptToken();
 
   useEffect(() => {
     if (userData && !webSocket) {
-      const webSocket = new WebSocket('wss://playpack.shop/ws/chat');
+      // 브라우저 WebSocket은 헤더를 보낼 수 없어 토큰을 쿼리로 전달한다.
+      const accessToken = decrypt(localStorage.getItem(ACCESS_TOKEN) || '');
+      const webSocket = new WebSocket(
+        `wss://playpack.shop/ws/chat?token=${encodeURIComponent(accessToken)}`,
+      );
       setWebSocket(webSocket);
       console.log('이곳은 웹소켓 프로바이더', userData);
     }
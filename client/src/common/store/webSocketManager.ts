@@ -8,8 +8,10 @@ class WebSocketManager {
     this.onMessageCallback = null;
   }
 
-  public connect(): void {
-    this.webSocket = new WebSocket('wss://playpack.shop/ws/chat');
+  public connect(accessToken: string): void {
+    this.webSocket = new WebSocket(
+      `wss://playpack.shop/ws/chat?token=${encodeURIComponent(accessToken)}`,
+    );
 
     // this.webSocket.onopen = (): void => {
     //   console.log('WebSocket is connected.');
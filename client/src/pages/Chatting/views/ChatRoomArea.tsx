@@ -149,7 +149,7 @@
 
 //----------------------------------------------------------------------------------------------
 
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import { useParams } from 'react-router-dom';
 import { Client } from '@stomp/stompjs';
 import { useWebSocket } from '../../../WebSocketProvider';
@@ -184,14 +184,52 @@ function ChatRoomArea({
 
   const { data: userData } = useGetMe();
 
+  // 방별로 받은 메시지 번호. 재접속 시 가장 큰 번호 이후만 다시 받는다.
+  // 번호가 순서를 바꿔 도착해도 잃지 않도록, 마지막 번호보다 작은지 대신 이미 받은 번호인지로 중복을 거른다.
+  const seqsByRoom = useRef<Record<string, { last: number; seen: Set<number> }>>(
+    {},
+  );
+
+  const getRoomSeqs = () => {
+    const key = `${roomId}`;
+    if (!seqsByRoom.current[key]) {
+      seqsByRoom.current[key] = { last: 0, seen: new Set<number>() };
+    }
+    return seqsByRoom.current[key];
+  };
+
+  // 처음 받은 번호면 기록하고 true
+  const acceptSeq = (seq: number) => {
+    const seqs = getRoomSeqs();
+    if (seqs.seen.has(seq)) return false;
+    seqs.seen.add(seq);
+    seqs.last = Math.max(seqs.last, seq);
+    // 오래된 번호는 다시 올 일이 없으므로 지운다.
+    if (seqs.seen.size > 1000) {
+      seqs.seen.forEach((value) => {
+        if (value < seqs.last - 500) seqs.seen.delete(value);
+      });
+    }
+    return true;
+  };
+
   // const webSocket = useWebSocket(); // useWebSocket hook을 사용해서 웹소켓 가져오기
 
   const handleNewMessage = (message: any) => {
     setMessages((prevMessages) => {
-      if (!prevMessages.includes(message)) {
-        return [...prevMessages, message];
+      if (prevMessages.includes(message)) {
+        return prevMessages;
+      }
+      // 늦게 도착한 번호는 더 큰 번호의 메시지들 앞에 끼워 넣는다.
+      const next = [...prevMessages];
+      let index = next.length;
+      if (message.seq > 0) {
+        while (index > 0 && (next[index - 1] as any)?.seq > message.seq) {
+          index -= 1;
+        }
       }
-      return prevMessages;
+      next.splice(index, 0, message);
+      return next;
     });
   };
 
@@ -207,6 +245,7 @@ function ChatRoomArea({
           content: '',
           senderId: `${userData?.memberId}`,
           roomId: `${roomId}`,
+          seq: getRoomSeqs().last,
           // roomId: '32ec1906-05bd-40f2-83b5-f891c4ffc753',
         };
 
@@ -216,6 +255,20 @@ function ChatRoomArea({
       webSocket.onmessage = (event) => {
         const message = JSON.parse(event.data);
         console.log('WebSocket message received:', JSON.parse(event.data));
+        // 너무 빨리 보내 서버가 버린 메시지가 있다는 알림. 채팅 목록에는 넣지 않는다.
+        if (message.type === 'ERROR') {
+          if (message.content === 'RATE_LIMITED') {
+            alert('메세지를 너무 빠르게 보내고 있습니다. 잠시 후 다시 시도해주세요.');
+          }
+          // 재접속 때 서버가 seq번부터 이어서 보내주지 못했다. 그 구간은 이전 메시지 API로 불러와야 한다.
+          if (message.content === 'REPLAY_GAP') {
+            console.warn('chat replay gap from seq', message.seq);
+          }
+          return;
+        }
+        // 접속 상태(PRESENCE)와 입력 중(TYPING) 알림은 아직 화면에 표시하지 않으므로 채팅 목록에 넣지 않는다.
+        if (message.type !== 'TALK') return;
+        if (message.seq > 0 && !acceptSeq(message.seq)) return;
         handleNewMessage(message);
       };
 
@@ -0,0 +1,144 @@
+package com.ftiland.travelrental.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 채팅 WebSocket 연결 하나
+// 다른 회원이 보낸 TALK의 content에 담긴 전송 시각(System.nanoTime)으로 종단 간 지연을 잰다.
+// 보낸 클라이언트와 받는 클라이언트가 같은 JVM에 있으므로 시계 차이가 없다.
+final class ChatLoadClient implements WebSocket.Listener {
+
+    static final String LATENCY_PREFIX = "lt|";
+
+    // 서버가 느려 전송이 밀리면 더 쌓지 않고 버린다.
+    private static final int MAX_PENDING_SENDS = 64;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final long memberId;
+    private final String roomId;
+    private final Recorder latency;
+    private final LoadTestStats stats;
+    private final AtomicInteger pendingSends = new AtomicInteger();
+    private final StringBuilder buffer = new StringBuilder();
+
+    private WebSocket webSocket;
+    private CompletableFuture<WebSocket> sends;
+
+    ChatLoadClient(long memberId, String roomId, Recorder latency, LoadTestStats stats) {
+        this.memberId = memberId;
+        this.roomId = roomId;
+        this.latency = latency;
+        this.stats = stats;
+    }
+
+    CompletableFuture<ChatLoadClient> connect(HttpClient httpClient, String webSocketUrl, String token) {
+        return httpClient.newWebSocketBuilder()
+                .buildAsync(URI.create(webSocketUrl + "?token=" + token), this)
+                .thenApply(ws -> {
+                    synchronized (this) {
+                        webSocket = ws;
+                        sends = CompletableFuture.completedFuture(ws);
+                    }
+                    send(message("CONNECT", ""));
+                    return this;
+                });
+    }
+
+    void talk() {
+        send(message("TALK", LATENCY_PREFIX + System.nanoTime()));
+    }
+
+    // java.net.http.WebSocket은 이전 전송이 끝나기 전에 다시 보낼 수 없으므로 이어 붙인다.
+    private void send(String text) {
+        if (pendingSends.incrementAndGet() > MAX_PENDING_SENDS) {
+            pendingSends.decrementAndGet();
+            stats.skipped.increment();
+            return;
+        }
+        synchronized (this) {
+            sends = sends.thenCompose(ws -> ws.sendText(text, true))
+                    .whenComplete((ws, e) -> {
+                        pendingSends.decrementAndGet();
+                        if (e == null) {
+                            stats.sent.increment();
+                        } else {
+                            stats.errors.increment();
+                        }
+                    })
+                    .exceptionally(e -> webSocket);
+        }
+    }
+
+    private String message(String type, String content) {
+        return "{\"type\":\"" + type + "\",\"roomId\":\"" + roomId + "\",\"content\":\"" + content + "\"}";
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        buffer.append(data);
+        if (last) {
+            handle(buffer.toString());
+            buffer.setLength(0);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    private void handle(String payload) {
+        long now = System.nanoTime();
+        try {
+            JsonNode message = OBJECT_MAPPER.readTree(payload);
+            if (!"TALK".equals(message.path("type").asText())) {
+                return;
+            }
+            stats.delivered.increment();
+            String content = message.path("content").asText();
+            if (latency != null && message.path("senderId").asLong() != memberId && content.startsWith(LATENCY_PREFIX)) {
+                long sentAt = Long.parseLong(content.substring(LATENCY_PREFIX.length()));
+                latency.recordValue(Math.max(0, (now - sentAt) / 1000));
+            }
+        } catch (Exception e) {
+            stats.errors.increment();
+        }
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        stats.closed.increment();
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        stats.closed.increment();
+    }
+
+    void close() {
+        WebSocket ws;
+        synchronized (this) {
+            ws = webSocket;
+        }
+        if (ws != null) {
+            ws.sendClose(WebSocket.NORMAL_CLOSURE, "");
+        }
+    }
+
+    // 여러 연결이 함께 쓰는 카운터
+    static final class LoadTestStats {
+        final LongAdder sent = new LongAdder();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder closed = new LongAdder();
+    }
+}
@@ -0,0 +1,255 @@
+package com.ftiland.travelrental.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// 채팅 부하 테스트
+// 1. 서버의 loadtest 프로필이 만든 회원/상품으로 /api/chat에 방을 만든다. (LoadTestDataSeeder와 같은 규칙)
+// 2. 방마다 구매자/판매자가 ws/chat에 접속해 CONNECT를 보내고, idle 연결은 접속만 유지한다.
+// 3. 정해진 속도로 TALK를 보내며 종단 간 지연 분포(HdrHistogram), 처리량, 서버의 DB 저장 지연(chat.journal.lag)을 출력한다.
+public class ChatLoadTest {
+
+    private static final String PRODUCT_PREFIX = "loadtest-product-";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final Key key;
+    private final Recorder latency = new Recorder(3);
+    private final ChatLoadClient.LoadTestStats stats = new ChatLoadClient.LoadTestStats();
+
+    public ChatLoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.key = Keys.hmacShaKeyFor(options.secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new ChatLoadTest(LoadTestOptions.parse(args)).run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        System.out.printf("rooms=%d idle=%d rate=%.2f/s per room, warmup=%ds duration=%ds%n",
+                options.rooms, options.idle, options.rate, options.warmupSeconds, options.durationSeconds);
+
+        List<String> roomIds = createRooms();
+        List<ChatLoadClient[]> pairs = connectPairs(roomIds);
+        List<ChatLoadClient> idleClients = connectIdle(roomIds);
+        System.out.printf("connected : %d active, %d idle%n", pairs.size() * 2, idleClients.size());
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        long tickMillis = 10;
+        double perTick = options.rate * pairs.size() * tickMillis / 1000.0;
+        double[] budget = {0};
+        int[] next = {0};
+        scheduler.scheduleAtFixedRate(() -> {
+            budget[0] += perTick;
+            while (budget[0] >= 1) {
+                budget[0] -= 1;
+                int index = next[0]++;
+                // 방을 돌아가며 구매자/판매자가 번갈아 보낸다.
+                pairs.get(index % pairs.size())[(index / pairs.size()) % 2].talk();
+            }
+        }, 0, tickMillis, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmupSeconds));
+        latency.reset();
+        stats.delivered.sumThenReset();
+        stats.sent.sumThenReset();
+
+        Histogram total = new Histogram(3);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(options.reportSeconds));
+            Histogram interval = latency.getIntervalHistogram();
+            total.add(interval);
+            printInterval(interval);
+        }
+        scheduler.shutdownNow();
+        Thread.sleep(1000);
+        total.add(latency.getIntervalHistogram());
+
+        printSummary(total);
+        printPersistenceLag();
+
+        for (ChatLoadClient[] pair : pairs) {
+            pair[0].close();
+            pair[1].close();
+        }
+        idleClients.forEach(ChatLoadClient::close);
+    }
+
+    // 방 생성 후 /api/chat/chatroom으로 방 id를 받는다. 이미 있는 방이면 생성은 무시된다.
+    private List<String> createRooms() {
+        Semaphore permits = new Semaphore(options.concurrency);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int k = 0; k < options.rooms; k++) {
+            String productId = PRODUCT_PREFIX + k;
+            String token = token(buyerId(k));
+            permits.acquireUninterruptibly();
+            HttpRequest create = HttpRequest.newBuilder(URI.create(options.baseUrl + "/api/chat"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"loadtest-" + k + "\",\"productId\":\"" + productId + "\"}"))
+                    .build();
+            HttpRequest find = HttpRequest.newBuilder(URI.create(options.baseUrl + "/api/chat/chatroom?productId=" + productId))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            futures.add(httpClient.sendAsync(create, HttpResponse.BodyHandlers.discarding())
+                    .thenCompose(response -> httpClient.sendAsync(find, HttpResponse.BodyHandlers.ofString()))
+                    .thenApply(response -> readField(response, "chatroomId"))
+                    .whenComplete((roomId, e) -> permits.release()));
+        }
+        List<String> roomIds = new ArrayList<>();
+        for (CompletableFuture<String> future : futures) {
+            roomIds.add(future.join());
+        }
+        return roomIds;
+    }
+
+    private List<ChatLoadClient[]> connectPairs(List<String> roomIds) {
+        Semaphore permits = new Semaphore(options.concurrency);
+        List<CompletableFuture<ChatLoadClient>> futures = new ArrayList<>();
+        List<ChatLoadClient[]> pairs = new ArrayList<>();
+        for (int k = 0; k < roomIds.size(); k++) {
+            ChatLoadClient buyer = new ChatLoadClient(buyerId(k), roomIds.get(k), latency, stats);
+            ChatLoadClient seller = new ChatLoadClient(sellerId(k), roomIds.get(k), latency, stats);
+            pairs.add(new ChatLoadClient[]{buyer, seller});
+            futures.add(connect(buyer, buyerId(k), permits));
+            futures.add(connect(seller, sellerId(k), permits));
+        }
+        futures.forEach(CompletableFuture::join);
+        return pairs;
+    }
+
+    private List<ChatLoadClient> connectIdle(List<String> roomIds) {
+        Semaphore permits = new Semaphore(options.concurrency);
+        List<CompletableFuture<ChatLoadClient>> futures = new ArrayList<>();
+        for (int i = 0; i < options.idle; i++) {
+            int k = i % roomIds.size();
+            futures.add(connect(new ChatLoadClient(buyerId(k), roomIds.get(k), null, stats), buyerId(k), permits));
+        }
+        List<ChatLoadClient> clients = new ArrayList<>();
+        for (CompletableFuture<ChatLoadClient> future : futures) {
+            clients.add(future.join());
+        }
+        return clients;
+    }
+
+    private CompletableFuture<ChatLoadClient> connect(ChatLoadClient client, long memberId, Semaphore permits) {
+        permits.acquireUninterruptibly();
+        return client.connect(httpClient, options.webSocketUrl(), token(memberId))
+                .whenComplete((c, e) -> permits.release());
+    }
+
+    private void printInterval(Histogram interval) {
+        long delivered = stats.delivered.sumThenReset();
+        long sent = stats.sent.sumThenReset();
+        System.out.printf("sent %8.1f/s  delivered %8.1f/s  p50 %7.2fms  p99 %7.2fms  p99.9 %7.2fms  max %7.2fms  skipped %d  errors %d  closed %d%n",
+                sent / (double) options.reportSeconds,
+                delivered / (double) options.reportSeconds,
+                millis(interval.getValueAtPercentile(50)),
+                millis(interval.getValueAtPercentile(99)),
+                millis(interval.getValueAtPercentile(99.9)),
+                millis(interval.getMaxValue()),
+                stats.skipped.sum(), stats.errors.sum(), stats.closed.sum());
+    }
+
+    private void printSummary(Histogram total) {
+        System.out.println();
+        System.out.printf("delivery latency (ms) over %d samples%n", total.getTotalCount());
+        total.outputPercentileDistribution(System.out, 5, 1000.0);
+    }
+
+    // 서버가 메시지를 받은 시각부터 DB에 저장될 때까지의 지연
+    private void printPersistenceLag() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl + "/actuator/metrics/chat.journal.lag"))
+                .header("Authorization", "Bearer " + token(buyerId(0)))
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            double count = 0;
+            double totalSeconds = 0;
+            double maxSeconds = 0;
+            for (JsonNode measurement : OBJECT_MAPPER.readTree(response.body()).path("measurements")) {
+                String statistic = measurement.path("statistic").asText();
+                double value = measurement.path("value").asDouble();
+                if ("COUNT".equals(statistic)) {
+                    count = value;
+                } else if ("TOTAL_TIME".equals(statistic)) {
+                    totalSeconds = value;
+                } else if ("MAX".equals(statistic)) {
+                    maxSeconds = value;
+                }
+            }
+            System.out.printf("persistence lag : %.0f messages, mean %.2fms, max %.2fms%n",
+                    count, count == 0 ? 0 : totalSeconds * 1000 / count, maxSeconds * 1000);
+        } catch (Exception e) {
+            System.out.println("persistence lag : unavailable (" + e.getMessage() + ")");
+        }
+    }
+
+    private String readField(HttpResponse<String> response, String field) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("request failed : " + response.statusCode() + " " + response.body());
+        }
+        try {
+            return OBJECT_MAPPER.readTree(response.body()).path(field).asText();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 서버의 JwtTokenizer와 같이 typ=access를 넣어야 access token으로 받아준다.
+    private String token(long memberId) {
+        String email = "loadtest-" + memberId + "@loadtest.local";
+        return Jwts.builder()
+                .setClaims(Map.of("memberId", memberId, "displayName", "loadtest-" + memberId, "email", email))
+                .claim("typ", "access")
+                .setSubject(email)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(6)))
+                .signWith(key)
+                .compact();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    // LoadTestDataSeeder: k번째 방은 구매자 2k+1번, 판매자 2k+2번 회원
+    private static long buyerId(int k) {
+        return 2L * k + 1;
+    }
+
+    private static long sellerId(int k) {
+        return 2L * k + 2;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ftiland.travelrental.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// --key=value 형식의 실행 옵션
+final class LoadTestOptions {
+
+    // 서버 application-loadtest.yml의 jwt.key.secret과 같은 값
+    private static final String DEFAULT_SECRET = "loadtest-secret-key-loadtest-secret-key-0123456789";
+
+    final String baseUrl;
+    // 방 수. 방마다 구매자/판매자 두 연결이 메시지를 주고받는다. (서버의 loadtest.rooms 이하)
+    final int rooms;
+    // 메시지를 보내지 않고 접속만 유지하는 연결 수
+    final int idle;
+    // 방마다 초당 보내는 메시지 수
+    final double rate;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int reportSeconds;
+    // 동시에 진행하는 방 생성/접속 요청 수
+    final int concurrency;
+    final String secret;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.baseUrl = values.getOrDefault("base-url", "http://localhost:8080");
+        this.rooms = Integer.parseInt(values.getOrDefault("rooms", "100"));
+        this.idle = Integer.parseInt(values.getOrDefault("idle", "0"));
+        this.rate = Double.parseDouble(values.getOrDefault("rate", "1"));
+        this.warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "10"));
+        this.durationSeconds = Integer.parseInt(values.getOrDefault("duration", "60"));
+        this.reportSeconds = Integer.parseInt(values.getOrDefault("report", "5"));
+        this.concurrency = Integer.parseInt(values.getOrDefault("concurrency", "200"));
+        this.secret = values.getOrDefault("secret", DEFAULT_SECRET);
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("usage: --key=value, but was " + arg);
+            }
+            int index = arg.indexOf('=');
+            values.put(arg.substring(2, index), arg.substring(index + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    String webSocketUrl() {
+        return baseUrl.replaceFirst("^http", "ws") + "/ws/chat";
+    }
+}
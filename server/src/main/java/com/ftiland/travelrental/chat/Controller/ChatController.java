@@ -1,8 +1,10 @@
 package com.ftiland.travelrental.chat.Controller;
 
+import com.ftiland.travelrental.chat.dto.ChatHistory;
 import com.ftiland.travelrental.chat.dto.RequestDto;
 import com.ftiland.travelrental.chat.dto.ChatRoomDto;
 import com.ftiland.travelrental.chat.dto.ResponseDto;
+import com.ftiland.travelrental.chat.entity.ChatInbox;
 import com.ftiland.travelrental.chat.entity.ChatMessage;
 import com.ftiland.travelrental.chat.entity.ChatRoom;
 
@@ -11,20 +13,23 @@ import com.ftiland.travelrental.chat.repository.ChatRoomMembersRepository;
 import com.ftiland.travelrental.chat.service.ChatDtoService;
 import com.ftiland.travelrental.chat.service.ChatEntityService;
 import com.ftiland.travelrental.common.annotation.CurrentMember;
-import com.ftiland.travelrental.member.entity.Member;
 import com.ftiland.travelrental.member.service.MemberService;
 import com.ftiland.travelrental.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.repository.query.Param;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
 import java.util.List;
 
 @RequiredArgsConstructor
+@Validated
 @RestController
 @RequestMapping("/api/chat")
 public class ChatController {
@@ -50,7 +55,7 @@ public class ChatController {
         Long receiverId = productService.findSellerId(productId);
         ResponseDto.SellerInfoForCustomer response = ResponseDto.SellerInfoForCustomer.builder()
                 .sellerId(receiverId)
-                .chatRoomExists(chatEntityService.existsChatRooms(senderId,receiverId))
+                .chatRoomExists(chatEntityService.existsChatRooms(senderId,receiverId,productId))
                 .build();
 
         return new ResponseEntity(response,HttpStatus.OK);
@@ -63,12 +68,18 @@ public class ChatController {
         requestBody.setSenderId(memberId);
         requestBody.setReceiverId(productService.findSellerId(requestBody.getProductId()));
 
-        if(chatEntityService.existsChatRooms(requestBody.getSenderId(), requestBody.getReceiverId())==true){
+        if(chatEntityService.existsChatRooms(requestBody.getSenderId(), requestBody.getReceiverId(), requestBody.getProductId())==true){
             return null;
         }
 
         ChatRoomDto chatRoomDto = chatDtoService.createRoom(requestBody.getName());
-        chatEntityService.storeChatRoom(requestBody.getSenderId(), requestBody.getReceiverId(), chatRoomDto.getRoomId(), requestBody.getName());
+        try {
+            chatEntityService.storeChatRoom(requestBody.getSenderId(), requestBody.getReceiverId(), chatRoomDto.getRoomId(), requestBody.getName(), requestBody.getProductId());
+        } catch (DataIntegrityViolationException e) {
+            // 같은 방을 동시에 만든 요청이 먼저 저장했다. 이미 있는 경우와 같게 처리한다.
+            chatDtoService.removeChatRoom(chatRoomDto.getRoomId());
+            return null;
+        }
 
         return HttpStatus.CREATED;
     }
@@ -76,7 +87,7 @@ public class ChatController {
     // 채팅방 이전 메세지 불러오기 case 1
     @GetMapping("/message1")
     public ResponseEntity findChatroomMessages(@Param("roomId")String roomId){
-        ArrayList<ChatMessage> chatMessageList = chatEntityService.findChatroomMessages(roomId);
+        List<ChatMessage> chatMessageList = chatEntityService.findChatroomMessages(roomId);
         ResponseDto.Messages response = chatMapper.ChatMessagesToResponseMessages(chatMessageList);
 
         return new ResponseEntity(response,HttpStatus.OK);
@@ -91,28 +102,42 @@ public class ChatController {
         return new ResponseEntity(response,HttpStatus.OK);
     }
 
-    // 채팅방 리스트 불러오기
+    // 채팅방 이전 메세지 불러오기 (before 커서 기반 페이징)
+    @GetMapping("/rooms/{room-id}/messages")
+    public ResponseEntity<ChatHistory> findChatHistory(@CurrentMember Long memberId,
+                                                       @PathVariable("room-id") String roomId,
+                                                       @RequestParam(defaultValue = "30") @Positive @Max(100) int size,
+                                                       @RequestParam(required = false) String before){
+        ChatHistory response = chatEntityService.findChatHistory(roomId, memberId, size, before);
+
+        return new ResponseEntity<>(response,HttpStatus.OK);
+    }
+
+    // 채팅방 리스트 불러오기 (마지막 메시지 시간순)
     @GetMapping("/chatrooms")
     public ResponseEntity findChatRooms(@CurrentMember Long memberId){
 
-        List<ChatRoom> chatRooms = chatEntityService.existsChatRooms(memberId);
-        List<Member> senderList = new ArrayList<>();
-        for (ChatRoom chatRoom : chatRooms){
-            String roomId = chatRoom.getChatroomId();
-            senderList.add(chatEntityService.findReceiver(memberId,roomId));
-        }
-        ResponseDto.ChatRooms response = chatMapper.ChatRoomsToChatRoomList(chatRooms,senderList);
+        List<ChatInbox> inbox = chatEntityService.findInbox(memberId);
+        ResponseDto.ChatRooms response = chatMapper.ChatInboxToChatRoomList(inbox);
 
         return new ResponseEntity(response,HttpStatus.OK);
     }
 
+    // 채팅방 메세지 읽음 처리
+    @PatchMapping("/rooms/{room-id}/read")
+    public ResponseEntity<Void> markRead(@CurrentMember Long memberId, @PathVariable("room-id") String roomId){
+        chatEntityService.markRead(roomId, memberId);
+
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
     // 특정 채팅방 정보 불러오기
     @GetMapping("/chatroom")
     public ResponseEntity findChatRoom(@CurrentMember Long senderId,@Param("productId") String productId){
         // 판매자 id를 받아서 맴버 id 참조 -> 보안 문제해결
         Long receiverId = productService.findSellerId(productId);
 
-        ChatRoom chatRoom = chatEntityService.findChatRoom(senderId,receiverId);
+        ChatRoom chatRoom = chatEntityService.findChatRoom(senderId,receiverId,productId);
         ResponseDto.ChatRoom response = chatMapper.ChatRoomToResponseChatRoom(chatRoom);
 
         return new ResponseEntity(response,HttpStatus.OK);
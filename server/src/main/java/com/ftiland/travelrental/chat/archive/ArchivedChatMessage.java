@@ -0,0 +1,21 @@
+package com.ftiland.travelrental.chat.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 아카이브 세그먼트 안에 저장되는 메시지 한 건
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedChatMessage {
+
+    private String messageId;
+    private String content;
+    private Long senderId;
+    private LocalDateTime createAt;
+    // seq 도입 전 메시지와 그 전에 만든 세그먼트는 null
+    private Long seq;
+}
@@ -0,0 +1,48 @@
+package com.ftiland.travelrental.chat.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.archive.enabled", havingValue = "true")
+public class ChatArchiveScheduler {
+
+    private final ChatArchiveService chatArchiveService;
+    private final int ageDays;
+    private final int batchSize;
+    private final int roomsPerRun;
+
+    public ChatArchiveScheduler(ChatArchiveService chatArchiveService,
+                                @Value("${chat.archive.age-days:90}") int ageDays,
+                                @Value("${chat.archive.batch-size:5000}") int batchSize,
+                                @Value("${chat.archive.rooms-per-run:100}") int roomsPerRun) {
+        this.chatArchiveService = chatArchiveService;
+        this.ageDays = ageDays;
+        this.batchSize = batchSize;
+        this.roomsPerRun = roomsPerRun;
+    }
+
+    // 방 하나를 batchSize 단위의 짧은 트랜잭션으로 나눠 옮긴다.
+    @Scheduled(fixedDelayString = "${chat.archive.interval-ms:3600000}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ageDays);
+        List<String> roomIds = chatArchiveService.findRoomsToArchive(cutoff, roomsPerRun);
+
+        long archived = 0;
+        for (String roomId : roomIds) {
+            int moved;
+            do {
+                moved = chatArchiveService.archiveRoom(roomId, cutoff, batchSize);
+                archived += moved;
+            } while (moved == batchSize);
+        }
+        log.info("[ChatArchiveScheduler] {} messages archived from {} rooms", archived, roomIds.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.ftiland.travelrental.chat.archive;
+
+import com.ftiland.travelrental.chat.dto.ChatHistoryDto;
+import com.ftiland.travelrental.chat.entity.ChatMessageArchive;
+import com.ftiland.travelrental.chat.repository.ChatMessageArchiveRepository;
+import com.ftiland.travelrental.chat.repository.ChatMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// 오래된 메시지를 hot 테이블(chat_message)에서 방/날짜별 압축 세그먼트(chat_message_archive)로 옮기고,
+// 히스토리 조회 시 hot 테이블에서 모자란 부분을 세그먼트에서 이어서 읽는다.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ChatArchiveService {
+
+    private static final int SEGMENTS_PER_READ = 4;
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageArchiveRepository chatMessageArchiveRepository;
+    private final ChatArchiveCodec chatArchiveCodec;
+
+    // 아카이브를 끄면 세그먼트도 읽지 않는다. (짧은 페이지마다 세그먼트를 조회하지 않도록)
+    @Value("${chat.archive.enabled:false}")
+    private boolean enabled;
+
+    public List<String> findRoomsToArchive(LocalDateTime cutoff, int limit) {
+        return chatMessageRepository.findRoomIdsToArchive(cutoff, PageRequest.of(0, limit));
+    }
+
+    // cutoff 이전 메시지를 오래된 순서로 batchSize개까지 옮긴다. 옮긴 메시지 수를 반환한다.
+    @Transactional
+    public int archiveRoom(String roomId, LocalDateTime cutoff, int batchSize) {
+        List<ArchivedChatMessage> messages = chatMessageRepository.findArchivable(roomId, cutoff, PageRequest.of(0, batchSize));
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        Map<LocalDate, List<ArchivedChatMessage>> buckets = new LinkedHashMap<>();
+        for (ArchivedChatMessage message : messages) {
+            buckets.computeIfAbsent(message.getCreateAt().toLocalDate(), d -> new ArrayList<>()).add(message);
+        }
+
+        List<ChatMessageArchive> segments = new ArrayList<>(buckets.size());
+        for (Map.Entry<LocalDate, List<ArchivedChatMessage>> bucket : buckets.entrySet()) {
+            List<ArchivedChatMessage> bucketMessages = bucket.getValue();
+            ArchivedChatMessage first = bucketMessages.get(0);
+            ArchivedChatMessage last = bucketMessages.get(bucketMessages.size() - 1);
+
+            segments.add(ChatMessageArchive.builder()
+                    .archiveId(UUID.randomUUID().toString())
+                    .chatroomId(roomId)
+                    .bucket(bucket.getKey())
+                    .firstCreateAt(first.getCreateAt())
+                    .lastCreateAt(last.getCreateAt())
+                    .lastMessageId(last.getMessageId())
+                    .messageCount(bucketMessages.size())
+                    .payload(chatArchiveCodec.encode(bucketMessages))
+                    .build());
+        }
+        chatMessageArchiveRepository.saveAll(segments);
+
+        chatMessageRepository.deleteByMessageIds(messages.stream()
+                .map(ArchivedChatMessage::getMessageId)
+                .collect(Collectors.toList()));
+
+        log.info("[ChatArchiveService] {} messages archived into {} segments : {}", messages.size(), segments.size(), roomId);
+        return messages.size();
+    }
+
+    // (createdAt, messageId) 보다 이전 메시지를 최신순으로 limit개까지 읽는다. createdAt이 null이면 가장 최신부터 읽는다.
+    public List<ChatHistoryDto> findBefore(String roomId, LocalDateTime createdAt, String messageId, int limit) {
+        if (!enabled || !chatMessageArchiveRepository.existsByChatroomId(roomId)) {
+            return List.of();
+        }
+        List<ChatHistoryDto> result = new ArrayList<>(limit);
+
+        for (int page = 0; result.size() < limit; page++) {
+            PageRequest pageable = PageRequest.of(page, SEGMENTS_PER_READ);
+            List<ChatMessageArchive> segments = createdAt == null
+                    ? chatMessageArchiveRepository.findLatest(roomId, pageable)
+                    : chatMessageArchiveRepository.findBefore(roomId, createdAt, pageable);
+
+            for (ChatMessageArchive segment : segments) {
+                List<ArchivedChatMessage> messages = chatArchiveCodec.decode(segment.getPayload());
+                for (int i = messages.size() - 1; i >= 0 && result.size() < limit; i--) {
+                    ArchivedChatMessage message = messages.get(i);
+                    if (createdAt == null || isBefore(message, createdAt, messageId)) {
+                        result.add(new ChatHistoryDto(message.getMessageId(), message.getContent(),
+                                message.getSenderId(), message.getCreateAt()));
+                    }
+                }
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+
+            if (segments.size() < SEGMENTS_PER_READ) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private boolean isBefore(ArchivedChatMessage message, LocalDateTime createdAt, String messageId) {
+        int compare = message.getCreateAt().compareTo(createdAt);
+        return compare < 0 || (compare == 0 && message.getMessageId().compareTo(messageId) < 0);
+    }
+}
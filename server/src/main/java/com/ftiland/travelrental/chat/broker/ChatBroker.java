@@ -0,0 +1,15 @@
+package com.ftiland.travelrental.chat.broker;
+
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+
+// 채팅 메시지를 방에 참여한 모든 노드의 로컬 세션으로 전달한다.
+public interface ChatBroker {
+
+    void publish(String roomId, ChatMessageDto message);
+
+    // 이 노드에서 방에 세션이 하나 들어올 때마다 호출한다.
+    void subscribe(String roomId);
+
+    // 이 노드에서 방의 세션이 하나 나갈 때마다 호출한다.
+    void unsubscribe(String roomId);
+}
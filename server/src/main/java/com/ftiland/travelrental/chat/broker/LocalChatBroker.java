@@ -0,0 +1,38 @@
+package com.ftiland.travelrental.chat.broker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import com.ftiland.travelrental.chat.service.ChatDtoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// 단일 인스턴스용: 같은 JVM의 세션에만 전달한다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chat.broker", havingValue = "local", matchIfMissing = true)
+public class LocalChatBroker implements ChatBroker {
+
+    private final ChatDtoService chatDtoService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publish(String roomId, ChatMessageDto message) {
+        try {
+            chatDtoService.deliver(roomId, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(String roomId) {
+    }
+
+    @Override
+    public void unsubscribe(String roomId) {
+    }
+}
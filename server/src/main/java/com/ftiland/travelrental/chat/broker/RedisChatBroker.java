@@ -0,0 +1,118 @@
+package com.ftiland.travelrental.chat.broker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import com.ftiland.travelrental.chat.sequence.ChatRecentMessages;
+import com.ftiland.travelrental.chat.service.ChatDtoService;
+import com.ftiland.travelrental.common.lock.StripedLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 여러 인스턴스용: 방마다 redis 채널을 두고, 각 노드는 로컬 세션이 있는 방만 구독한다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.broker", havingValue = "redis")
+public class RedisChatBroker implements ChatBroker {
+
+    private static final String CHANNEL_PREFIX = "chat:room:";
+
+    private final ChatDtoService chatDtoService;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChatRecentMessages chatRecentMessages;
+    private final MessageListener listener;
+
+    // 방 id -> 이 노드에 접속한 세션 수
+    private final ConcurrentMap<String, Integer> subscriptions = new ConcurrentHashMap<>();
+    // 실제로 redis 채널 리스너가 등록된 방
+    private final Set<String> subscribedRooms = ConcurrentHashMap.newKeySet();
+    private final StripedLock roomLocks = new StripedLock(64, 5000);
+
+    public RedisChatBroker(ChatDtoService chatDtoService, ObjectMapper objectMapper,
+                           StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                           ChatRecentMessages chatRecentMessages) {
+        this.chatDtoService = chatDtoService;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.chatRecentMessages = chatRecentMessages;
+        // 수신한 payload는 다시 직렬화하지 않고 그대로 로컬 세션에 보낸다.
+        this.listener = (message, pattern) -> {
+            String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+            String roomId = channel.substring(CHANNEL_PREFIX.length());
+            String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+            remember(payload);
+            chatDtoService.deliver(roomId, payload);
+        };
+    }
+
+    @Override
+    public void publish(String roomId, ChatMessageDto message) {
+        try {
+            redisTemplate.convertAndSend(channel(roomId).getTopic(), objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    // 다른 노드에서 보낸 메시지도 최근 메시지 버퍼에 넣어야 이 노드로 재접속한 세션이 DB 없이 다시 받는다.
+    // 이 노드에서 보낸 메시지는 이미 들어 있지만 seq 슬롯에 같은 메시지를 다시 넣을 뿐이다.
+    private void remember(String payload) {
+        try {
+            ChatMessageDto message = objectMapper.readValue(payload, ChatMessageDto.class);
+            if (message.getType() == ChatMessageDto.MessageType.TALK && message.getSeq() > 0) {
+                chatRecentMessages.append(message);
+            }
+        } catch (JsonProcessingException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    // 참조 카운트는 compute 안에서만 바꾸고, 블로킹되는 redis 구독/해지는 맵의 bin 락 밖에서 처리한다.
+    @Override
+    public void subscribe(String roomId) {
+        subscriptions.merge(roomId, 1, Integer::sum);
+        reconcile(roomId);
+    }
+
+    @Override
+    public void unsubscribe(String roomId) {
+        subscriptions.computeIfPresent(roomId, (id, count) -> count == 1 ? null : count - 1);
+        reconcile(roomId);
+    }
+
+    // 현재 참조 카운트에 맞게 실제 구독 상태를 맞춘다.
+    // 구독과 해지가 엇갈려도 방별 락 안에서 최신 카운트를 다시 보고 판단하므로 마지막 호출 뒤에는 항상 일치한다.
+    private void reconcile(String roomId) {
+        roomLocks.executeWithLock(roomId, () -> {
+            boolean wanted = subscriptions.containsKey(roomId);
+            boolean listening = subscribedRooms.contains(roomId);
+            if (wanted && !listening) {
+                listenerContainer.addMessageListener(listener, channel(roomId));
+                subscribedRooms.add(roomId);
+                log.info("[RedisChatBroker] subscribe : {}", roomId);
+            } else if (!wanted && listening) {
+                listenerContainer.removeMessageListener(listener, channel(roomId));
+                subscribedRooms.remove(roomId);
+                log.info("[RedisChatBroker] unsubscribe : {}", roomId);
+            }
+            return null;
+        });
+    }
+
+    private ChannelTopic channel(String roomId) {
+        return new ChannelTopic(CHANNEL_PREFIX + roomId);
+    }
+}
@@ -0,0 +1,177 @@
+package com.ftiland.travelrental.chat.codec;
+
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 바이너리 채팅 프레임 인코더/디코더
+// 프레임 = [방 참조][type][senderId][seq][flags][content]
+//  - 방 참조: 0이면 뒤에 방 id 문자열이 오고 양쪽 RoomTable에 등록된다. n > 0이면 RoomTable의 n번째 방
+//  - 숫자는 varint, 문자열은 varint 길이 + UTF-8
+//  - flags: content 유무, PRESENCE의 ONLINE/OFFLINE
+// 방 참조 뒤의 본문은 세션과 무관하므로 브로드캐스트할 때 한 번만 인코딩한다.
+public final class ChatBinaryCodec {
+
+    private static final int HAS_CONTENT = 1;
+    private static final int ONLINE = 1 << 1;
+    private static final int OFFLINE = 1 << 2;
+
+    private static final ChatMessageDto.MessageType[] TYPES = ChatMessageDto.MessageType.values();
+
+    private ChatBinaryCodec() {
+    }
+
+    public static byte[] encodeBody(ChatMessageDto message) {
+        byte[] content = message.getContent() == null ? null : message.getContent().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content == null ? 12 : content.length + 16);
+
+        out.write(message.getType().ordinal());
+        writeVarLong(out, message.getSenderId());
+        writeVarLong(out, message.getSeq());
+
+        int flags = 0;
+        if (content != null) {
+            flags |= HAS_CONTENT;
+        }
+        if (ChatMessageDto.ONLINE.equals(message.getStatus())) {
+            flags |= ONLINE;
+        } else if (ChatMessageDto.OFFLINE.equals(message.getStatus())) {
+            flags |= OFFLINE;
+        }
+        out.write(flags);
+
+        if (content != null) {
+            writeVarLong(out, content.length);
+            out.write(content, 0, content.length);
+        }
+        return out.toByteArray();
+    }
+
+    // 같은 RoomTable로 보내는 프레임은 만든 순서대로 전송되어야 한다.
+    public static ByteBuffer encodeFrame(RoomTable rooms, String roomId, byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + roomId.length() + 4);
+        int index = rooms.indexOf(roomId);
+        if (index > 0) {
+            writeVarLong(out, index);
+        } else {
+            writeVarLong(out, 0);
+            writeString(out, roomId);
+            rooms.add(roomId);
+        }
+        out.write(body, 0, body.length);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    public static ByteBuffer encode(RoomTable rooms, ChatMessageDto message) {
+        return encodeFrame(rooms, message.getRoomId(), encodeBody(message));
+    }
+
+    public static ChatMessageDto decode(RoomTable rooms, ByteBuffer frame) {
+        try {
+            ChatMessageDto message = new ChatMessageDto();
+
+            int index = (int) readVarLong(frame);
+            if (index == 0) {
+                String roomId = readString(frame);
+                rooms.add(roomId);
+                message.setRoomId(roomId);
+            } else {
+                message.setRoomId(rooms.get(index));
+            }
+
+            int type = frame.get() & 0xFF;
+            if (type >= TYPES.length) {
+                throw new IllegalArgumentException("unknown message type : " + type);
+            }
+            message.setType(TYPES[type]);
+            message.setSenderId(readVarLong(frame));
+            message.setSeq(readVarLong(frame));
+
+            int flags = frame.get() & 0xFF;
+            if ((flags & HAS_CONTENT) != 0) {
+                message.setContent(readString(frame));
+            }
+            if ((flags & ONLINE) != 0) {
+                message.setStatus(ChatMessageDto.ONLINE);
+            } else if ((flags & OFFLINE) != 0) {
+                message.setStatus(ChatMessageDto.OFFLINE);
+            }
+            return message;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated chat frame", e);
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        long length = readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("invalid string length : " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 한 방향(수신 또는 송신)의 방 id 인터닝 테이블
+    // 보내는 쪽과 받는 쪽이 같은 순서로 등록하므로 번호를 따로 주고받지 않는다.
+    // 가득 차면 더 등록하지 않고 계속 문자열로 보낸다.
+    public static class RoomTable {
+        public static final int MAX_ROOMS = 64;
+
+        private final List<String> rooms = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        // 등록되지 않은 방이면 0
+        int indexOf(String roomId) {
+            Integer index = indexes.get(roomId);
+            return index == null ? 0 : index;
+        }
+
+        void add(String roomId) {
+            if (rooms.size() < MAX_ROOMS && !indexes.containsKey(roomId)) {
+                rooms.add(roomId);
+                indexes.put(roomId, rooms.size());
+            }
+        }
+
+        String get(int index) {
+            if (index < 1 || index > rooms.size()) {
+                throw new IllegalArgumentException("unknown room reference : " + index);
+            }
+            return rooms.get(index - 1);
+        }
+    }
+}
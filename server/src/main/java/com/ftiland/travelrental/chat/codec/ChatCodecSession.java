@@ -0,0 +1,39 @@
+package com.ftiland.travelrental.chat.codec;
+
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+
+// 바이너리 프로토콜로 접속한 세션의 코덱 상태. JSON 세션에는 없다.
+public class ChatCodecSession {
+
+    public static final String ATTRIBUTE = "chatCodec";
+
+    // 클라이언트가 Sec-WebSocket-Protocol로 이 값을 요청하면 바이너리 프레임을 쓴다.
+    public static final String BINARY_PROTOCOL = "chat.bin.v1";
+
+    private final ChatBinaryCodec.RoomTable inbound = new ChatBinaryCodec.RoomTable();
+    private final ChatBinaryCodec.RoomTable outbound = new ChatBinaryCodec.RoomTable();
+
+    public static ChatCodecSession of(WebSocketSession session) {
+        return (ChatCodecSession) session.getAttributes().get(ATTRIBUTE);
+    }
+
+    public static void attachIfBinary(WebSocketSession session) {
+        if (BINARY_PROTOCOL.equals(session.getAcceptedProtocol())) {
+            session.getAttributes().put(ATTRIBUTE, new ChatCodecSession());
+        }
+    }
+
+    // 수신 프레임은 세션마다 순서대로 처리되므로 잠그지 않는다.
+    public ChatMessageDto decode(ByteBuffer frame) {
+        return ChatBinaryCodec.decode(inbound, frame);
+    }
+
+    // 호출하는 쪽에서 이 객체로 동기화한 채 전송 큐에 넣어야 인터닝 순서가 어긋나지 않는다.
+    public BinaryMessage frame(String roomId, byte[] body) {
+        return new BinaryMessage(ChatBinaryCodec.encodeFrame(outbound, roomId, body));
+    }
+}
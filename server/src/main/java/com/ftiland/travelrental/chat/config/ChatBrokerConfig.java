@@ -0,0 +1,55 @@
+package com.ftiland.travelrental.chat.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.RejectedExecutionException;
+
+@Configuration
+@ConditionalOnProperty(name = "chat.broker", havingValue = "redis")
+public class ChatBrokerConfig {
+
+    // 기본값인 SimpleAsyncTaskExecutor는 메시지마다 스레드를 새로 만들어 개수 제한도 순서 보장도 없다.
+    // deliver는 세션별 송신 큐에 넣기만 하므로 단일 스레드로 충분하고, 그래야 방 안의 메시지 순서가 유지된다.
+    // Executor 빈으로 등록하면 스프링 부트 기본 applicationTaskExecutor가 빠지므로 이 설정 안에서만 관리한다.
+    private final ThreadPoolTaskExecutor listenerExecutor = new ThreadPoolTaskExecutor();
+
+    @Bean
+    public RedisMessageListenerContainer chatListenerContainer(@Qualifier("redisCacheConnectionFactory") RedisConnectionFactory connectionFactory,
+                                                               @Value("${chat.broker.listener-queue-capacity:10000}") int queueCapacity) {
+        listenerExecutor.setCorePoolSize(1);
+        listenerExecutor.setMaxPoolSize(1);
+        listenerExecutor.setQueueCapacity(queueCapacity);
+        listenerExecutor.setThreadNamePrefix("chat-broker-listener-");
+        // 큐가 가득 차면 버리거나 호출 스레드에서 실행(순서가 뒤바뀜)하지 않고, 자리가 날 때까지 redis 수신 스레드를 멈춘다.
+        listenerExecutor.setRejectedExecutionHandler((task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("chat listener executor is shut down");
+            }
+            try {
+                pool.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(e);
+            }
+        });
+        listenerExecutor.initialize();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(listenerExecutor);
+        return container;
+    }
+
+    @PreDestroy
+    public void shutdownListenerExecutor() {
+        listenerExecutor.shutdown();
+    }
+}
@@ -3,6 +3,8 @@ package com.ftiland.travelrental.chat.config;
 
 
 import com.ftiland.travelrental.chat.handler.WebSocketHandler;
+import com.ftiland.travelrental.chat.interceptor.ChatRateLimitInterceptor;
+import com.ftiland.travelrental.chat.interceptor.JwtHandshakeInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -16,10 +18,17 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 @EnableWebSocket
 public class WebSocketConfig implements WebSocketConfigurer {
     private final WebSocketHandler webSocketHandler;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+    private final ChatRateLimitInterceptor chatRateLimitInterceptor;
 
+    // 클라이언트가 Sec-WebSocket-Protocol: chat.bin.v1을 요청하면 바이너리 프레임을 쓴다. (ChatCodecSession)
+    // permessage-deflate는 클라이언트가 Sec-WebSocket-Extensions로 요청하면 Tomcat(WsServerContainer에 기본 설치된 확장)이
+    // 이 핸드셰이크 경로에서 협상한다. 컨테이너를 바꾸면 WebSocketDeflateHandshakeTest로 다시 확인한다.
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(webSocketHandler, "ws/chat")
+                // JWT 검증과 채팅방 조회 전에 과도한 재연결부터 거른다.
+                .addInterceptors(chatRateLimitInterceptor, jwtHandshakeInterceptor)
                 .setAllowedOrigins("http://localhost:3000/","https://playpack-e541f.web.app");
     }
 }
@@ -0,0 +1,41 @@
+package com.ftiland.travelrental.chat.dto;
+
+import com.ftiland.travelrental.common.CursorInfo;
+import com.ftiland.travelrental.common.KeysetCursor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatHistory {
+    private String roomId;
+    // 오래된 메시지부터 화면에 표시하는 순서
+    private List<ChatHistoryDto> messages;
+    private CursorInfo cursorInfo;
+
+    // 최신순으로 size + 1개를 조회해서 더 이전 메시지가 있는지 판단하고, nextCursor는 가장 오래된 메시지를 가리킨다.
+    public static ChatHistory of(String roomId, List<ChatHistoryDto> newestFirst, int size) {
+        boolean hasNext = newestFirst.size() > size;
+        List<ChatHistoryDto> content = new ArrayList<>(hasNext ? newestFirst.subList(0, size) : newestFirst);
+
+        String nextCursor = null;
+        if (hasNext) {
+            ChatHistoryDto oldest = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(oldest.getCreatedAt(), oldest.getMessageId()).encode();
+        }
+        Collections.reverse(content);
+
+        return ChatHistory.builder()
+                .roomId(roomId)
+                .messages(content)
+                .cursorInfo(new CursorInfo(content.size(), hasNext, nextCursor)).build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.ftiland.travelrental.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ChatHistoryDto {
+
+    private String messageId;
+    private String content;
+    private Long memberId;
+    private LocalDateTime createdAt;
+}
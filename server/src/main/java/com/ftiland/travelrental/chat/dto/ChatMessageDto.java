@@ -8,10 +8,59 @@ import lombok.Setter;
 @Setter
 public class ChatMessageDto {
     public enum MessageType{
-        CONNECT,TALK
+        CONNECT,TALK,
+        // DB에 저장하지 않는 일회성 이벤트
+        PRESENCE,TYPING,
+        // 서버가 보내는 처리 거부 알림. content에 이유를 담는다. (binary codec이 순서로 인코딩하므로 맨 뒤에 둔다)
+        ERROR
     }
+
+    // 세션별 프레임 제한을 넘어 버린 프레임이 있을 때
+    public static final String RATE_LIMITED = "RATE_LIMITED";
+    // 재접속 재전송이 seq부터 이어서 보내지 못했을 때. 그 이후 메시지는 이전 메시지 API로 불러와야 한다.
+    public static final String REPLAY_GAP = "REPLAY_GAP";
+
+    public static final String ONLINE = "ONLINE";
+    public static final String OFFLINE = "OFFLINE";
+
     private MessageType type;
     private String roomId;
     private long senderId;
     private String content;
+    // TALK: 방마다 1씩 증가하는 메시지 번호
+    // CONNECT: 클라이언트가 마지막으로 받은 번호. 0보다 크면 그 이후 메시지를 다시 보내준다.
+    private long seq;
+    // PRESENCE 이벤트의 ONLINE/OFFLINE
+    private String status;
+
+    public static ChatMessageDto presence(String roomId, long memberId, String status) {
+        ChatMessageDto message = new ChatMessageDto();
+        message.setType(MessageType.PRESENCE);
+        message.setRoomId(roomId);
+        message.setSenderId(memberId);
+        message.setStatus(status);
+        return message;
+    }
+
+    public static ChatMessageDto error(String roomId, String reason) {
+        ChatMessageDto message = new ChatMessageDto();
+        message.setType(MessageType.ERROR);
+        message.setRoomId(roomId);
+        message.setContent(reason);
+        return message;
+    }
+
+    public static ChatMessageDto replayGap(String roomId, long firstMissingSeq) {
+        ChatMessageDto message = error(roomId, REPLAY_GAP);
+        message.setSeq(firstMissingSeq);
+        return message;
+    }
+
+    public static ChatMessageDto typing(String roomId, long memberId) {
+        ChatMessageDto message = new ChatMessageDto();
+        message.setType(MessageType.TYPING);
+        message.setRoomId(roomId);
+        message.setSenderId(memberId);
+        return message;
+    }
 }
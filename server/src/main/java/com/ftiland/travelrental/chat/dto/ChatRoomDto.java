@@ -1,13 +1,14 @@
 package com.ftiland.travelrental.chat.dto;
 
+import com.ftiland.travelrental.chat.broker.ChatBroker;
 import com.ftiland.travelrental.chat.service.ChatDtoService;
 import com.ftiland.travelrental.chat.service.ChatEntityService;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 
@@ -20,44 +21,43 @@ import java.util.Set;
 public class ChatRoomDto {
     private String roomId;
     private String name;
-    private Set<WebSocketSession> sessions = new HashSet<>();
-
+    // 입장/퇴장과 브로드캐스트가 서로 다른 스레드에서 동시에 일어나므로 concurrent set을 쓴다.
+    @Builder.Default
+    private Set<WebSocketSession> sessions = newSessionSet();
 
+    public static Set<WebSocketSession> newSessionSet() {
+        return ConcurrentHashMap.newKeySet();
+    }
 
-    public void handlerActions(WebSocketSession session, ChatMessageDto chatMessage, ChatDtoService chatDtoService, ChatEntityService chatEntityService) {
+    public void handlerActions(WebSocketSession session, ChatMessageDto chatMessage, ChatDtoService chatDtoService, ChatEntityService chatEntityService, ChatBroker chatBroker) {
 
 
         if (chatMessage.getType().equals(ChatMessageDto.MessageType.CONNECT)) {
-            sessions.add(session);
+            if (chatDtoService.joinRoom(roomId, name, session)) {
+                chatBroker.subscribe(roomId);
+            }
 
             log.info(String.format("[ Connect : %s ]",roomId));
-            log.info(String.format("Now connected session count : %d",sessions.size()));
+            log.info(String.format("Now connected session count : %d",chatDtoService.countSessions(roomId)));
         }
 
 
         else if (chatMessage.getType().equals(ChatMessageDto.MessageType.TALK)){
 
 
-            sendMessage(chatMessage, chatDtoService);
-            chatEntityService.storeChatMessage(chatMessage.getRoomId(), chatMessage.getContent(), chatMessage.getSenderId());
+            // 저널에 먼저 남겨야 재기동 후에도 클라이언트가 받은 seq가 다시 쓰이지 않는다.
+            chatEntityService.storeChatMessage(chatMessage.getRoomId(), chatMessage.getContent(), chatMessage.getSenderId(), chatMessage.getSeq());
+            // 다른 노드에 접속한 참여자에게도 전달되도록 broker를 거친다.
+            chatBroker.publish(roomId, chatMessage);
         }
     }
 
-    private <T> void sendMessage(T message, ChatDtoService chatDtoService) {
-        sessions.parallelStream()
-                .forEach(session -> chatDtoService.sendMessage(session, message));
-    }
-
-    public void removeSession(ChatDtoService chatDtoService, ChatEntityService chatEntityService, WebSocketSession session){
-        sessions.remove(session);
-        int size = sessions.size();
+    public void removeSession(ChatDtoService chatDtoService, ChatEntityService chatEntityService, ChatBroker chatBroker, WebSocketSession session){
+        if (chatDtoService.leaveRoom(roomId, session)) {
+            chatBroker.unsubscribe(roomId);
+        }
 
         log.info(String.format("[ Disconnect : %s ]",roomId));
-        log.info(String.format("Now connected session count : %d",size));
-
-
-        if(size==0){
-            chatDtoService.removeChatRoom(roomId);
-        }
+        log.info(String.format("Now connected session count : %d",chatDtoService.countSessions(roomId)));
     }
 }
@@ -62,6 +62,8 @@ public class ResponseDto {
         private String imageUrl;
         private String roomName;
         private String lastMessage;
+        private LocalDateTime lastMessageAt;
+        private int unreadCount;
     }
 
     @Getter
@@ -0,0 +1,217 @@
+package com.ftiland.travelrental.chat.engine;
+
+import com.ftiland.travelrental.chat.session.ChatOutboundSessions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 수신한 채팅 프레임을 어느 스레드에서 처리할지 정한다.
+// - servlet: 기존처럼 컨테이너 스레드에서 바로 처리한다.
+// - async: 방 id로 lane을 골라 lane 전용 스레드에서 처리한다.
+//   같은 방의 메시지는 한 lane에서 순서대로 처리되고, 컨테이너 스레드는 DB/redis 호출을 기다리지 않는다.
+//   lane에 쌓인 메시지가 queue-capacity를 넘으면 더 받지 않고 세션을 1013(SERVICE_OVERLOAD)으로 끊는다.
+//   연결 종료 처리는 이 한도에 넣지 않으므로 어느 스레드에서도 기다리지 않고 바로 큐에 들어간다.
+//   JDK 21 이상에서 virtual-threads를 켜면 lane 스레드를 virtual thread로 만든다.
+@Slf4j
+@Component
+public class ChatInboundDispatcher {
+
+    public static final String SERVLET = "servlet";
+    public static final String ASYNC = "async";
+
+    // 세션이 메시지를 넣은 lane 번호들
+    private static final String USED_LANES = "chatLanes";
+
+    @FunctionalInterface
+    public interface ChatTask {
+        void run() throws Exception;
+    }
+
+    private final ChatOutboundSessions chatOutboundSessions;
+    private final MeterRegistry meterRegistry;
+    private final boolean async;
+    private final int laneCount;
+    private final int queueCapacity;
+    private final boolean virtualThreads;
+    private final Counter rejectedCounter;
+
+    private Lane[] lanes;
+    private volatile boolean running;
+
+    public ChatInboundDispatcher(ChatOutboundSessions chatOutboundSessions,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${chat.engine.mode:servlet}") String mode,
+                                 @Value("${chat.engine.lanes:0}") int laneCount,
+                                 @Value("${chat.engine.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${chat.engine.virtual-threads:true}") boolean virtualThreads) {
+        this.chatOutboundSessions = chatOutboundSessions;
+        this.meterRegistry = meterRegistry;
+        this.async = ASYNC.equalsIgnoreCase(mode);
+        this.laneCount = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors() * 2;
+        this.queueCapacity = queueCapacity;
+        this.virtualThreads = virtualThreads;
+        this.rejectedCounter = meterRegistry.counter("chat.engine.rejected");
+    }
+
+    @PostConstruct
+    private void start() {
+        if (!async) {
+            return;
+        }
+        ThreadFactory threadFactory = virtualThreads ? virtualThreadFactory() : null;
+        running = true;
+        lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(queueCapacity);
+            Thread thread = threadFactory != null ? threadFactory.newThread(lanes[i]) : new Thread(lanes[i]);
+            thread.setName("chat-lane-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Gauge.builder("chat.engine.queued", this, ChatInboundDispatcher::queued)
+                .description("lane 큐에서 처리를 기다리는 메시지 수")
+                .register(meterRegistry);
+        log.info("[ChatInboundDispatcher] async mode : {} lanes, {} threads", laneCount, threadFactory != null ? "virtual" : "platform");
+    }
+
+    // 컨테이너 스레드에서 세션마다 순서대로 호출된다.
+    public void dispatch(WebSocketSession session, String roomId, ChatTask task) throws Exception {
+        if (!async) {
+            task.run();
+            return;
+        }
+        int index = laneOf(roomId);
+        usedLanes(session).add(index);
+        if (!lanes[index].offerMessage(() -> runTask(session, task))) {
+            rejectedCounter.increment();
+            log.warn("[ChatInboundDispatcher] lane {} is full, close session : {}", index, session.getId());
+            closeQuietly(session, CloseStatus.SERVICE_OVERLOAD);
+        }
+    }
+
+    // 연결 종료 처리는 세션이 넣어둔 메시지가 모두 처리된 뒤에 실행한다.
+    // (아직 처리되지 않은 CONNECT가 종료 후에 세션을 방에 다시 넣는 일이 없도록)
+    public void dispatchClose(WebSocketSession session, ChatTask task) throws Exception {
+        Set<Integer> used = async ? usedLanes(session) : Set.of();
+        if (used.isEmpty()) {
+            task.run();
+            return;
+        }
+        AtomicInteger remaining = new AtomicInteger(used.size());
+        Runnable marker = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                runTask(session, task);
+            }
+        };
+        for (int index : used) {
+            // 종료 처리는 버리면 세션이 남으므로 한도와 상관없이 넣는다.
+            // 기다리지 않으므로 lane 스레드에서 호출돼도 막히지 않는다.
+            lanes[index].queue.add(marker);
+        }
+    }
+
+    private void runTask(WebSocketSession session, ChatTask task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            // 컨테이너 스레드에서 처리할 때와 같이 오류가 나면 연결을 끊는다.
+            log.error(e.getMessage(), e);
+            closeQuietly(session, CloseStatus.SERVER_ERROR);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Integer> usedLanes(WebSocketSession session) {
+        return (Set<Integer>) session.getAttributes().computeIfAbsent(USED_LANES, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private int laneOf(String roomId) {
+        int hash = roomId == null ? 0 : roomId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), laneCount);
+    }
+
+    private void closeQuietly(WebSocketSession session, CloseStatus status) {
+        WebSocketSession outbound = chatOutboundSessions.get(session.getId());
+        try {
+            (outbound != null ? outbound : session).close(status);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private double queued() {
+        long total = 0;
+        for (Lane lane : lanes) {
+            total += lane.queue.size();
+        }
+        return total;
+    }
+
+    // Java 11로 빌드하므로 Thread.ofVirtual()은 리플렉션으로 찾고, 없으면 플랫폼 스레드를 쓴다.
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    private void stop() {
+        running = false;
+    }
+
+    private final class Lane implements Runnable {
+        // 큐 자체는 제한하지 않고, 메시지 수만 capacity로 제한한다.
+        private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        private final AtomicInteger messages = new AtomicInteger();
+        private final int capacity;
+
+        private Lane(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private boolean offerMessage(Runnable task) {
+            if (messages.incrementAndGet() > capacity) {
+                messages.decrementAndGet();
+                return false;
+            }
+            queue.add(() -> {
+                messages.decrementAndGet();
+                task.run();
+            });
+            return true;
+        }
+
+        // 종료 시에는 남은 메시지를 처리한 뒤 빠져나온다.
+        @Override
+        public void run() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    Runnable task = queue.poll(1, TimeUnit.SECONDS);
+                    if (task != null) {
+                        task.run();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ftiland.travelrental.chat.entity;
+
+import com.ftiland.travelrental.common.aduit.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 채팅방 목록 조회용 읽기 모델 (회원, 채팅방)마다 한 줄
+// 메시지가 저장될 때 ChatMessageBatchWriter가 마지막 메시지와 안 읽은 수를 갱신한다.
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_inbox_member_room", columnNames = {"member_id", "chatroom_id"})
+}, indexes = {
+        @Index(name = "idx_chat_inbox_member_last", columnList = "member_id, last_message_at"),
+        @Index(name = "idx_chat_inbox_room", columnList = "chatroom_id"),
+        @Index(name = "idx_chat_inbox_counterpart", columnList = "counterpart_id")
+})
+public class ChatInbox extends BaseEntity {
+
+    public static final int SNIPPET_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long inboxId;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(name = "chatroom_id", nullable = false)
+    private String chatroomId;
+
+    private String roomName;
+
+    private Long counterpartId;
+    private String counterpartName;
+    private String counterpartImageUrl;
+
+    @Column(length = SNIPPET_LENGTH)
+    private String lastMessage;
+    private LocalDateTime lastMessageAt;
+
+    @Column(nullable = false, columnDefinition = "int default 0")
+    private int unreadCount;
+}
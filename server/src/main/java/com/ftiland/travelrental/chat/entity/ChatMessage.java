@@ -15,6 +15,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_chat_message_room_create", columnList = "chatroom_id, create_at, message_id"),
+        @Index(name = "idx_chat_message_room_seq", columnList = "chatroom_id, seq")
+})
 public class ChatMessage extends BaseEntity {
 
     @Id
@@ -22,6 +26,8 @@ public class ChatMessage extends BaseEntity {
     private String content;
     private Long senderId;
     private LocalDateTime createAt;
+    // 방 안에서의 메시지 번호 (번호가 도입되기 전 메시지는 null)
+    private Long seq;
 
     @ManyToOne
     @JoinColumn(name = "chatroom_id")
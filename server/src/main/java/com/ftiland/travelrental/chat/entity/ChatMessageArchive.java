@@ -0,0 +1,47 @@
+package com.ftiland.travelrental.chat.entity;
+
+import com.ftiland.travelrental.common.aduit.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 오래된 채팅 메시지를 방/날짜 단위로 묶어 gzip으로 압축해 둔 세그먼트
+// 한 세그먼트 안의 메시지는 (createAt, messageId) 오름차순이다.
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_chat_archive_room_last", columnList = "chatroom_id, last_create_at")
+})
+public class ChatMessageArchive extends BaseEntity {
+
+    @Id
+    private String archiveId;
+
+    @Column(name = "chatroom_id", nullable = false)
+    private String chatroomId;
+
+    @Column(nullable = false)
+    private LocalDate bucket;
+
+    @Column(nullable = false)
+    private LocalDateTime firstCreateAt;
+    @Column(nullable = false)
+    private LocalDateTime lastCreateAt;
+    @Column(nullable = false)
+    private String lastMessageId;
+
+    @Column(nullable = false)
+    private int messageCount;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] payload;
+}
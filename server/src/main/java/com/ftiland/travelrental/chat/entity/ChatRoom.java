@@ -16,6 +16,7 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_chat_room_pair", columnNames = {"member_low_id", "member_high_id", "product_id"}))
 public class ChatRoom extends BaseEntity {
 
     @Id
@@ -23,10 +24,21 @@ public class ChatRoom extends BaseEntity {
 
     private String name;
     private LocalDateTime updateAt;
+    // 저장된 메시지 중 가장 큰 seq. 재기동 후 번호를 이어서 매길 때 쓴다.
+    private Long lastSeq;
+
+    // 1:1 채팅방을 찾는 키. 두 회원 id를 작은 값/큰 값 순서로 저장해 누가 먼저 만들었는지와 무관하게 같은 키가 된다.
+    // 상품별 채팅방이 도입되기 전에 만들어진 방은 productId가 없다.
+    private Long memberLowId;
+    private Long memberHighId;
+    private String productId;
+
+    public void setParticipants(long memberId1, long memberId2, String productId) {
+        this.memberLowId = Math.min(memberId1, memberId2);
+        this.memberHighId = Math.max(memberId1, memberId2);
+        this.productId = productId;
+    }
 
     @OneToMany(mappedBy = "chatroom", cascade = CascadeType.ALL,fetch = FetchType.LAZY)
     List<ChatRoomMembers> members = new ArrayList<>();
-
-    @OneToMany(mappedBy = "chatroom",cascade = CascadeType.ALL)
-    List<ChatMessage> messages = new ArrayList<>();
 }
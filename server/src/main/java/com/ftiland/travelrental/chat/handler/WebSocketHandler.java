@@ -1,99 +1,293 @@
 package com.ftiland.travelrental.chat.handler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftiland.travelrental.chat.broker.ChatBroker;
+import com.ftiland.travelrental.chat.codec.ChatCodecSession;
 import com.ftiland.travelrental.chat.dto.ChatMessageDto;
 import com.ftiland.travelrental.chat.dto.ChatRoomDto;
+import com.ftiland.travelrental.chat.engine.ChatInboundDispatcher;
 import com.ftiland.travelrental.chat.entity.ChatRoom;
+import com.ftiland.travelrental.chat.interceptor.ChatRateLimitInterceptor;
+import com.ftiland.travelrental.chat.interceptor.JwtHandshakeInterceptor;
+import com.ftiland.travelrental.chat.presence.ChatPresenceService;
 import com.ftiland.travelrental.chat.repository.ChatRoomMembersRepository;
 import com.ftiland.travelrental.chat.repository.ChatRoomRepository;
+import com.ftiland.travelrental.chat.sequence.ChatRecentMessages;
+import com.ftiland.travelrental.chat.sequence.ChatSequencer;
 import com.ftiland.travelrental.chat.service.ChatDtoService;
 import com.ftiland.travelrental.chat.service.ChatEntityService;
+import com.ftiland.travelrental.chat.session.ChatHeartbeat;
+import com.ftiland.travelrental.chat.session.ChatOutboundSessions;
 import com.ftiland.travelrental.common.exception.BusinessLogicException;
 import com.ftiland.travelrental.common.exception.ExceptionCode;
+import com.ftiland.travelrental.common.lock.StripedLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Slf4j
 @RequiredArgsConstructor
 @Component
-public class WebSocketHandler extends TextWebSocketHandler {
+public class WebSocketHandler extends AbstractWebSocketHandler implements SubProtocolCapable {
     private final ObjectMapper objectMapper;
     private ChatDtoService chatDtoService;
     private ChatEntityService chatEntityService;
     private ChatRoomRepository chatRoomRepository;
     private ChatRoomMembersRepository chatRoomMembersRepository;
+    private ChatBroker chatBroker;
+    private ChatOutboundSessions chatOutboundSessions;
+    private ChatPresenceService chatPresenceService;
+    private ChatInboundDispatcher chatInboundDispatcher;
+    private ChatHeartbeat chatHeartbeat;
+    private ChatSequencer chatSequencer;
+    private ChatRecentMessages chatRecentMessages;
+    private ChatRateLimitInterceptor chatRateLimitInterceptor;
 
-    private MultiValueMap<String,String> sessions = new LinkedMultiValueMap<>();
+    // 재접속 시 한 번에 다시 보내는 최대 메시지 수
+    private static final int MAX_REPLAY = 500;
+
+    // 같은 방의 seq 할당~전송, 입장~놓친 메시지 재전송을 직렬화한다. (servlet/async 모든 모드)
+    private final StripedLock roomLocks = new StripedLock(256, 5000);
+
+    // 세션 id -> 입장한 방 id 목록
+    private final ConcurrentMap<String, Set<String>> sessions = new ConcurrentHashMap<>();
 
     @Autowired
-    public void WebSocketHandler(ChatEntityService chatEntityService, ChatDtoService chatDtoService, ChatRoomRepository chatRoomRepository, ChatRoomMembersRepository chatRoomMembersRepository) {
+    public void WebSocketHandler(ChatEntityService chatEntityService, ChatDtoService chatDtoService, ChatRoomRepository chatRoomRepository, ChatRoomMembersRepository chatRoomMembersRepository, ChatBroker chatBroker, ChatOutboundSessions chatOutboundSessions, ChatPresenceService chatPresenceService, ChatInboundDispatcher chatInboundDispatcher, ChatHeartbeat chatHeartbeat, ChatSequencer chatSequencer, ChatRecentMessages chatRecentMessages, ChatRateLimitInterceptor chatRateLimitInterceptor) {
         this.chatEntityService = chatEntityService;
         this.chatDtoService = chatDtoService;
         this.chatRoomRepository = chatRoomRepository;
         this.chatRoomMembersRepository = chatRoomMembersRepository;
+        this.chatBroker = chatBroker;
+        this.chatOutboundSessions = chatOutboundSessions;
+        this.chatPresenceService = chatPresenceService;
+        this.chatInboundDispatcher = chatInboundDispatcher;
+        this.chatHeartbeat = chatHeartbeat;
+        this.chatSequencer = chatSequencer;
+        this.chatRecentMessages = chatRecentMessages;
+        this.chatRateLimitInterceptor = chatRateLimitInterceptor;
     }
 
+    // 서브프로토콜을 요청하지 않은 클라이언트는 기존처럼 JSON 텍스트 프레임을 쓴다.
     @Override
-    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+    public List<String> getSubProtocols() {
+        return List.of(ChatCodecSession.BINARY_PROTOCOL);
+    }
+
+    // 방에는 원본 세션 대신 전송 버퍼가 있는 데코레이터를 등록한다.
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        ChatCodecSession.attachIfBinary(session);
+        chatOutboundSessions.register(session);
+        chatHeartbeat.register(session, () -> reapSession(session));
+    }
 
+    // 클라이언트는 ping에 pong으로 답하고, 받은 메시지와 pong은 모두 살아있다는 신호로 본다.
+    @Override
+    protected void handlePongMessage(WebSocketSession session, PongMessage message) throws Exception {
+        chatHeartbeat.touch(session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         String payload = message.getPayload();
         log.info("{}", payload);
-        ChatMessageDto chatMessage = objectMapper.readValue(payload, ChatMessageDto.class);
+        dispatch(session, objectMapper.readValue(payload, ChatMessageDto.class));
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        ChatCodecSession codec = ChatCodecSession.of(session);
+        if (codec == null) {
+            session.close(CloseStatus.NOT_ACCEPTABLE.withReason("binary frames require " + ChatCodecSession.BINARY_PROTOCOL));
+            return;
+        }
+        dispatch(session, codec.decode(message.getPayload()));
+    }
+
+    // 프레임 파싱까지만 컨테이너 스레드에서 하고, 나머지는 chat.engine.mode에 따라 처리한다.
+    private void dispatch(WebSocketSession session, ChatMessageDto chatMessage) throws Exception {
+        chatHeartbeat.touch(session.getId());
+        // 세션별 프레임 제한. 재접속 직후 여러 방에 한꺼번에 보내는 CONNECT는 세지 않는다.
+        if (chatMessage.getType() != ChatMessageDto.MessageType.CONNECT && !chatRateLimitInterceptor.allowFrame(session)) {
+            WebSocketSession outbound = chatOutboundSessions.get(session.getId());
+            if (outbound != null && chatRateLimitInterceptor.shouldNotifyDrop(session)) {
+                chatDtoService.send(outbound, ChatMessageDto.error(chatMessage.getRoomId(), ChatMessageDto.RATE_LIMITED));
+            }
+            return;
+        }
+        chatInboundDispatcher.dispatch(session, chatMessage.getRoomId(), () -> handleChatMessage(session, chatMessage));
+    }
+
+    private void handleChatMessage(WebSocketSession session, ChatMessageDto chatMessage) throws Exception {
         String roomId = chatMessage.getRoomId();
 
-        if(chatEntityService.verifyChatroomMember(roomId,chatMessage.getSenderId())==false){
+        // payload의 senderId는 믿지 않고 핸드셰이크에서 인증한 회원 id를 쓴다.
+        Long memberId = (Long) session.getAttributes().get(JwtHandshakeInterceptor.MEMBER_ID);
+        chatMessage.setSenderId(memberId);
+
+        if(!isChatroomMember(session, roomId, memberId)){
             log.error("[ Invalid chat access ]");
             throw new BusinessLogicException(ExceptionCode.UNAUTHORIZED_ACCESS);
         }
 
+        // 입력 중/접속 하트비트는 방 정보나 DB를 거치지 않고 바로 처리한다.
+        if(chatMessage.getType()== ChatMessageDto.MessageType.TYPING){
+            chatPresenceService.typing(roomId, memberId);
+            return;
+        }
+        if(chatMessage.getType()== ChatMessageDto.MessageType.PRESENCE){
+            chatPresenceService.touch(roomId, memberId, session.getId());
+            return;
+        }
+
         if(chatMessage.getType()== ChatMessageDto.MessageType.CONNECT){
-            sessions.add(session.getId(),roomId);
+            sessions.computeIfAbsent(session.getId(), id -> ConcurrentHashMap.newKeySet()).add(roomId);
         }
 
-        if (chatDtoService.findUseChatRoom(roomId)== false) {
+        ChatRoomDto chatRoom = chatDtoService.findRoomById(roomId);
+        if (chatRoom == null) {
 
             ChatRoom preChatRoom = chatRoomRepository.findById(roomId).orElseThrow(()->new BusinessLogicException(ExceptionCode.NOT_EXISTS));
 
-            ChatRoomDto chatRoom = ChatRoomDto.builder()
+            // 동시에 같은 방을 등록하려는 스레드가 있으면 먼저 등록된 방을 사용한다.
+            chatRoom = chatDtoService.putChatRooms(roomId, ChatRoomDto.builder()
                     .roomId(roomId)
                     .name(preChatRoom.getName())
-                    .sessions(new HashSet<>())
-                    .build();
-            chatDtoService.putChatRooms(roomId, chatRoom);
-            chatRoom.handlerActions(session, chatMessage, chatDtoService, chatEntityService);
+                    .sessions(ChatRoomDto.newSessionSet())
+                    .build());
+        }
+        WebSocketSession outbound = chatOutboundSessions.get(session.getId());
+        ChatRoomDto room = chatRoom;
+        // 락이 없으면 두 스레드가 seq N, N+1을 받고 N+1을 먼저 보낼 수 있고,
+        // 재접속한 세션이 놓친 메시지보다 큰 seq의 실시간 메시지를 먼저 받을 수 있다.
+        // 다른 노드에서 redis로 들어오는 메시지는 이 락 밖이므로 클라이언트가 seq로 중복을 거르고 순서대로 끼워 넣는다.
+        roomLocks.callWithLock(roomId, () -> {
+            if(chatMessage.getType()== ChatMessageDto.MessageType.TALK){
+                chatMessage.setSeq(chatSequencer.next(roomId));
+            }
+
+            // 저널이 메시지를 받지 않으면 (가득 참, 로그 쓰기 실패) 예외가 나서 전송도, 버퍼 기록도 하지 않는다.
+            room.handlerActions(outbound, chatMessage, chatDtoService, chatEntityService, chatBroker);
+
+            // 방 락 안이므로 전송 뒤에 넣어도 재접속한 세션의 재전송과 엇갈리지 않는다.
+            if(chatMessage.getType()== ChatMessageDto.MessageType.TALK){
+                chatRecentMessages.append(chatMessage);
+            }
+
+            if(chatMessage.getType()== ChatMessageDto.MessageType.CONNECT && chatMessage.getSeq() > 0){
+                replayMissed(outbound, roomId, chatMessage.getSeq());
+            }
+            return null;
+        });
+
+        if(chatMessage.getType()== ChatMessageDto.MessageType.CONNECT){
+            sendPresenceSnapshot(outbound, roomId, memberId);
+            chatPresenceService.touch(roomId, memberId, session.getId());
         }
+    }
 
+    // 재접속한 클라이언트가 마지막으로 받은 seq 이후 메시지를 다시 보낸다.
+    // 방 락 안에서 입장 직후에 보내므로 빠지는 메시지가 없고, 이 노드의 실시간 메시지는 재전송이 끝난 뒤에 나간다.
+    // 버퍼에 없어 DB와 저널에서 찾은 경우, 번호가 비거나(다른 노드가 아직 저장하지 않음, 아카이브됨)
+    // 한도에서 잘렸으면 처음 빠진 번호를 REPLAY_GAP으로 알려 클라이언트가 이전 메시지 API로 채우게 한다.
+    private void replayMissed(WebSocketSession session, String roomId, long afterSeq) throws Exception {
+        List<ChatMessageDto> missed = chatRecentMessages.since(roomId, afterSeq);
+        if (missed != null) {
+            for (ChatMessageDto message : missed) {
+                chatDtoService.send(session, message);
+            }
+            return;
+        }
 
-        else if(chatDtoService.findUseChatRoom(roomId)==true){
+        missed = chatEntityService.findMessagesAfterSeq(roomId, afterSeq, MAX_REPLAY);
+        long next = afterSeq + 1;
+        long firstMissing = 0;
+        for (ChatMessageDto message : missed) {
+            if (firstMissing == 0 && message.getSeq() != next) {
+                firstMissing = next;
+            }
+            next = message.getSeq() + 1;
+            chatDtoService.send(session, message);
+        }
+        if (firstMissing == 0 && (missed.size() == MAX_REPLAY || chatRecentMessages.lastSeq(roomId) >= next)) {
+            firstMissing = next;
+        }
+        if (firstMissing > 0) {
+            chatDtoService.send(session, ChatMessageDto.replayGap(roomId, firstMissing));
+        }
+    }
 
-            ChatRoomDto chatRoom = chatDtoService.findRoomById(chatMessage.getRoomId());
-            chatRoom.handlerActions(session, chatMessage, chatDtoService, chatEntityService);
+    // 새로 들어온 세션에게 이미 접속해 있는 회원들을 알려준다.
+    private void sendPresenceSnapshot(WebSocketSession session, String roomId, Long memberId) throws Exception {
+        for (Long onlineMemberId : chatPresenceService.onlineMembers(roomId)) {
+            if (!onlineMemberId.equals(memberId)) {
+                chatDtoService.send(session, ChatMessageDto.presence(roomId, onlineMemberId, ChatMessageDto.ONLINE));
+            }
         }
     }
 
 
+    // 핸드셰이크 때 불러온 참여 방 목록으로 확인하고,
+    // 접속 후에 새로 만들어진 방만 DB에서 확인해 목록에 추가한다.
+    @SuppressWarnings("unchecked")
+    private boolean isChatroomMember(WebSocketSession session, String roomId, Long memberId) {
+        Set<String> chatRooms = (Set<String>) session.getAttributes().get(JwtHandshakeInterceptor.CHAT_ROOMS);
+        if (chatRooms.contains(roomId)) {
+            return true;
+        }
+        if (chatEntityService.verifyChatroomMember(roomId, memberId)) {
+            chatRooms.add(roomId);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception{
+        chatHeartbeat.remove(session.getId());
+        chatInboundDispatcher.dispatchClose(session, () -> releaseSession(session));
+    }
+
+    // 응답이 없어 하트비트가 끊은 세션. close 이벤트가 오더라도 releaseSession은 한 번만 정리한다.
+    private void reapSession(WebSocketSession session) {
+        try {
+            chatInboundDispatcher.dispatchClose(session, () -> releaseSession(session));
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+        }
+    }
 
-        List<String> roomIdList = sessions.get(session.getId());
+    private void releaseSession(WebSocketSession session) {
+        WebSocketSession outbound = chatOutboundSessions.remove(session.getId());
+        Set<String> roomIds = sessions.remove(session.getId());
+        if (roomIds == null || outbound == null) {
+            return;
+        }
 
-        if(roomIdList.size()>0) {
-            sessions.remove(session.getId());
+        Long memberId = (Long) session.getAttributes().get(JwtHandshakeInterceptor.MEMBER_ID);
+        for (String roomId : roomIds) {
+            chatPresenceService.leave(roomId, memberId, session.getId());
 
-            for (String roomId : roomIdList) {
-                ChatRoomDto chatRoom = chatDtoService.findRoomById(roomId);
-                chatRoom.removeSession(chatDtoService, chatEntityService, session);
+            ChatRoomDto chatRoom = chatDtoService.findRoomById(roomId);
+            if (chatRoom != null) {
+                chatRoom.removeSession(chatDtoService, chatEntityService, chatBroker, outbound);
+            }
+            if (!chatDtoService.findUseChatRoom(roomId)) {
+                chatRecentMessages.evict(roomId);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.ftiland.travelrental.chat.interceptor;
+
+import com.ftiland.travelrental.common.ratelimit.RateLimitFilter;
+import com.ftiland.travelrental.common.ratelimit.RateLimitProperties;
+import com.ftiland.travelrental.common.ratelimit.RateLimiter;
+import com.ftiland.travelrental.common.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+// 핸드셰이크는 IP별로 RateLimiter에서 세고, 연결 후 수신 프레임은 세션마다 둔 TokenBucket으로 센다.
+// 프레임은 세션이 붙은 인스턴스에서만 처리하므로 redis를 쓰지 않는다.
+@Slf4j
+@Component
+public class ChatRateLimitInterceptor implements HandshakeInterceptor {
+
+    public static final String FRAME_BUCKET = "frameBucket";
+    // 마지막으로 버린 프레임을 알린 시각
+    private static final String DROP_NOTIFIED_AT = "frameDropNotifiedAt";
+    private static final long DROP_NOTIFY_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final Counter rejectedHandshakes;
+    private final Counter droppedFrames;
+
+    public ChatRateLimitInterceptor(RateLimiter rateLimiter, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.rejectedHandshakes = meterRegistry.counter("ratelimit.rejected", "route", "ws-handshake");
+        this.droppedFrames = meterRegistry.counter("ratelimit.rejected", "route", "ws-frame");
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String client = remoteAddress == null ? "unknown" : remoteAddress.getAddress().getHostAddress();
+        long retryAfterMillis = rateLimiter.tryAcquire("ws-handshake:ip" + client, properties.getWebsocket().getHandshake());
+        if (retryAfterMillis > 0) {
+            rejectedHandshakes.increment();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimitFilter.retryAfterSeconds(retryAfterMillis)));
+            return false;
+        }
+        attributes.put(FRAME_BUCKET, new TokenBucket(properties.getWebsocket().getFrame()));
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    // 넘치는 프레임은 버린다. TALK이면 seq를 받기 전이라 다른 참여자에게 빈 번호가 생기지 않는다.
+    public boolean allowFrame(WebSocketSession session) {
+        TokenBucket bucket = (TokenBucket) session.getAttributes().get(FRAME_BUCKET);
+        if (bucket == null || bucket.tryAcquire(System.nanoTime()) == 0) {
+            return true;
+        }
+        droppedFrames.increment();
+        log.debug("[ChatRateLimitInterceptor] frame dropped. session={}", session.getId());
+        return false;
+    }
+
+    // 버린 프레임을 클라이언트에 알릴지. 버릴 때마다 알리면 응답이 다시 부하가 되므로 세션마다 1초에 한 번만 알린다.
+    public boolean shouldNotifyDrop(WebSocketSession session) {
+        long now = System.nanoTime();
+        Long notifiedAt = (Long) session.getAttributes().get(DROP_NOTIFIED_AT);
+        if (notifiedAt != null && now - notifiedAt < DROP_NOTIFY_INTERVAL_NANOS) {
+            return false;
+        }
+        session.getAttributes().put(DROP_NOTIFIED_AT, now);
+        return true;
+    }
+}
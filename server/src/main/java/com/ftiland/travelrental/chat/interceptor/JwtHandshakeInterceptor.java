@@ -0,0 +1,80 @@
+package com.ftiland.travelrental.chat.interceptor;
+
+import com.ftiland.travelrental.chat.repository.ChatRoomMembersRepository;
+import com.ftiland.travelrental.oauth.jwt.JwtTokenizer;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 핸드셰이크 시점에 한 번만 JWT를 검증하고, 회원 id와 참여 중인 채팅방 목록을 세션 속성에 저장한다.
+// 브라우저 WebSocket은 헤더를 지정할 수 없으므로 토큰은 token 쿼리 파라미터로도 받는다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String MEMBER_ID = "memberId";
+    public static final String CHAT_ROOMS = "chatRooms";
+
+    private final JwtTokenizer jwtTokenizer;
+    private final ChatRoomMembersRepository chatRoomMembersRepository;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = resolveToken(request);
+        if (token == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        Long memberId;
+        try {
+            Claims claims = jwtTokenizer.getVerifiedClaims(token);
+            memberId = ((Number) claims.get("memberId")).longValue();
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            log.info("[JwtHandshakeInterceptor] invalid token : {}", e.getMessage());
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        Set<String> chatRooms = ConcurrentHashMap.newKeySet();
+        chatRooms.addAll(chatRoomMembersRepository.findChatroomIdsByMemberId(memberId));
+
+        attributes.put(MEMBER_ID, memberId);
+        attributes.put(CHAT_ROOMS, chatRooms);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private String resolveToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith("Bearer")) {
+            return authorization.replace("Bearer", "").trim();
+        }
+        if (request instanceof ServletServerHttpRequest) {
+            String token = ((ServletServerHttpRequest) request).getServletRequest().getParameter("token");
+            if (token != null && !token.isBlank()) {
+                return token.trim();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ftiland.travelrental.chat.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 로컬 로그와 DB 배치에 함께 쓰이는 채팅 메시지 한 건
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatJournalEntry {
+
+    private String messageId;
+    private String roomId;
+    private Long senderId;
+    private String content;
+    private LocalDateTime createAt;
+    private Long seq;
+}
@@ -0,0 +1,156 @@
+package com.ftiland.travelrental.chat.journal;
+
+import com.ftiland.travelrental.chat.entity.ChatInbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// 채팅 메시지를 JPA를 거치지 않고 JDBC 배치로 저장한다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageBatchWriter {
+
+    // 이미 저장된 메시지는 미리 걸러내므로 IGNORE 없이 넣는다. (삭제된 방의 메시지는 FK 오류로 드러난다)
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO chat_message (message_id, content, sender_id, create_at, chatroom_id, created_at, updated_at, seq) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // update_at과 seq high-water mark는 줄어들지 않게 큰 값만 반영한다.
+    private static final String UPDATE_ROOM =
+            "UPDATE chat_room SET update_at = GREATEST(COALESCE(update_at, ?), ?), " +
+                    "last_seq = GREATEST(COALESCE(last_seq, 0), ?) WHERE chatroom_id = ?";
+
+    // 받는 사람의 안 읽은 수를 늘린다. (보낸 사람 본인의 inbox는 제외)
+    private static final String INCREASE_UNREAD =
+            "UPDATE chat_inbox SET unread_count = unread_count + ? WHERE chatroom_id = ? AND member_id <> ?";
+    private static final String UPDATE_LAST_MESSAGE =
+            "UPDATE chat_inbox SET last_message = ?, last_message_at = ? " +
+                    "WHERE chatroom_id = ? AND (last_message_at IS NULL OR last_message_at <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void write(List<ChatJournalEntry> entries) {
+        // 로그 재실행 등으로 이미 저장된 메시지는 빼야 안 읽은 수가 두 번 늘지 않는다.
+        entries = withoutStored(entries);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(entries);
+        } catch (DataIntegrityViolationException e) {
+            // 삭제된 방 등으로 배치가 실패하면 한 건씩 저장하고 실패한 메시지만 버린다.
+            // 배치 중 일부는 이미 들어갔을 수 있으므로 다시 확인한 뒤 나머지만 넣는다.
+            log.error("[ChatMessageBatchWriter] batch insert failed, retry one by one", e);
+            Set<String> inserted = existingMessageIds(entries);
+            List<ChatJournalEntry> stored = new ArrayList<>(entries.size());
+            for (ChatJournalEntry entry : entries) {
+                // 배치 안에 같은 id가 두 번 있으면 처음 것만 저장된 것으로 센다. (두 번째는 아래에서 중복으로 버려진다)
+                if (inserted.remove(entry.getMessageId())) {
+                    stored.add(entry);
+                    continue;
+                }
+                try {
+                    insert(List.of(entry));
+                    stored.add(entry);
+                } catch (DataIntegrityViolationException ex) {
+                    log.error("[ChatMessageBatchWriter] drop message : {} (room {})", entry.getMessageId(), entry.getRoomId(), ex);
+                }
+            }
+            // 버린 메시지는 방/inbox에도 반영하지 않는다.
+            entries = stored;
+            if (entries.isEmpty()) {
+                return;
+            }
+        }
+
+        // 방마다 마지막 메시지만 반영한다.
+        Map<String, ChatJournalEntry> lastMessages = new LinkedHashMap<>();
+        // (방, 보낸 사람)마다 메시지 수
+        Map<List<Object>, Integer> sentCounts = new LinkedHashMap<>();
+        // 방마다 가장 큰 seq
+        Map<String, Long> lastSeqs = new LinkedHashMap<>();
+        for (ChatJournalEntry entry : entries) {
+            lastMessages.put(entry.getRoomId(), entry);
+            sentCounts.merge(List.of(entry.getRoomId(), entry.getSenderId()), 1, Integer::sum);
+            lastSeqs.merge(entry.getRoomId(), entry.getSeq() == null ? 0L : entry.getSeq(), Math::max);
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_ROOM, lastMessages.values(), lastMessages.size(), (ps, entry) -> {
+            Timestamp createAt = Timestamp.valueOf(entry.getCreateAt());
+            ps.setTimestamp(1, createAt);
+            ps.setTimestamp(2, createAt);
+            ps.setLong(3, lastSeqs.get(entry.getRoomId()));
+            ps.setString(4, entry.getRoomId());
+        });
+        jdbcTemplate.batchUpdate(UPDATE_LAST_MESSAGE, lastMessages.values(), lastMessages.size(), (ps, entry) -> {
+            Timestamp createAt = Timestamp.valueOf(entry.getCreateAt());
+            ps.setString(1, snippet(entry.getContent()));
+            ps.setTimestamp(2, createAt);
+            ps.setString(3, entry.getRoomId());
+            ps.setTimestamp(4, createAt);
+        });
+        jdbcTemplate.batchUpdate(INCREASE_UNREAD, sentCounts.entrySet(), sentCounts.size(), (ps, e) -> {
+            ps.setInt(1, e.getValue());
+            ps.setString(2, (String) e.getKey().get(0));
+            ps.setLong(3, (Long) e.getKey().get(1));
+        });
+    }
+
+    private List<ChatJournalEntry> withoutStored(List<ChatJournalEntry> entries) {
+        Set<String> existing = existingMessageIds(entries);
+        if (existing.isEmpty()) {
+            return entries;
+        }
+        return entries.stream()
+                .filter(entry -> !existing.contains(entry.getMessageId()))
+                .collect(Collectors.toList());
+    }
+
+    private Set<String> existingMessageIds(List<ChatJournalEntry> entries) {
+        String placeholders = String.join(",", Collections.nCopies(entries.size(), "?"));
+        Object[] ids = entries.stream().map(ChatJournalEntry::getMessageId).toArray();
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT message_id FROM chat_message WHERE message_id IN (" + placeholders + ")", String.class, ids));
+    }
+
+    private String snippet(String content) {
+        if (content == null || content.length() <= ChatInbox.SNIPPET_LENGTH) {
+            return content;
+        }
+        return content.substring(0, ChatInbox.SNIPPET_LENGTH);
+    }
+
+    private void insert(List<ChatJournalEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, entries, entries.size(), (ps, entry) -> {
+            Timestamp createAt = Timestamp.valueOf(entry.getCreateAt());
+            ps.setString(1, entry.getMessageId());
+            ps.setString(2, entry.getContent());
+            ps.setLong(3, entry.getSenderId());
+            ps.setTimestamp(4, createAt);
+            ps.setString(5, entry.getRoomId());
+            ps.setTimestamp(6, createAt);
+            ps.setTimestamp(7, createAt);
+            if (entry.getSeq() == null) {
+                ps.setNull(8, Types.BIGINT);
+            } else {
+                ps.setLong(8, entry.getSeq());
+            }
+        });
+    }
+}
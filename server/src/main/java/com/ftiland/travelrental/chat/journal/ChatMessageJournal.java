@@ -0,0 +1,377 @@
+package com.ftiland.travelrental.chat.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+import com.ftiland.travelrental.common.exception.ExceptionCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// write-behind 채팅 메시지 저장소
+// 1. append 시 로컬 로그에 먼저 기록한 뒤 큐에 넣는다. (로그에 쓰인 메시지는 프로세스가 죽어도 잃지 않는다)
+// 2. 단일 flusher 스레드가 N건 또는 일정 시간마다 JDBC 배치로 저장한다. (단일 스레드라 방별 순서가 유지된다)
+// 3. 로그는 segment-bytes마다 새 파일로 나누고, 메시지가 모두 저장된 파일부터 지운다.
+//    기동 시 남아있는 파일은 순서대로 다시 저장한다.
+// 4. 대기 중인 메시지가 capacity만큼 쌓이면 offer-timeout 동안 기다리고, 그래도 자리가 없거나
+//    로그에 쓰지 못하면 메시지를 받지 않고 예외를 던진다. (순서를 어기며 호출 스레드에서 저장하지 않는다)
+@Slf4j
+@Component
+public class ChatMessageJournal {
+
+    private final ChatMessageBatchWriter batchWriter;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<ChatJournalEntry> queue = new LinkedBlockingQueue<>();
+    // 받았지만 아직 DB에 커밋되지 않은 메시지. (큐에 있거나 flusher가 저장 중인 것)
+    // 재접속 재전송이 DB에서 못 찾는 최근 메시지를 여기서 채운다.
+    private final Set<ChatJournalEntry> pending = ConcurrentHashMap.newKeySet();
+    // 로그에 기록됐지만 아직 DB에 저장되지 않은 메시지 수를 capacity로 제한한다.
+    private final Semaphore capacity;
+    private final long offerTimeoutMillis;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long segmentBytes;
+    private final Path logPath;
+    // 메시지를 받은 시각부터 DB에 저장될 때까지 걸린 시간
+    private final Timer persistLag;
+    // 이 시각 이전에 만들어진 메시지(이전 프로세스의 로그를 재실행한 것)는 lag에 넣지 않는다.
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final Object logLock = new Object();
+    // 오래된 순서의 로그 파일. 마지막이 지금 쓰는 파일이다. (logLock으로 보호)
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long nextSegmentIndex;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public ChatMessageJournal(ChatMessageBatchWriter batchWriter,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.journal.capacity:10000}") int capacity,
+                              @Value("${chat.journal.offer-timeout-ms:1000}") long offerTimeoutMillis,
+                              @Value("${chat.journal.batch-size:200}") int batchSize,
+                              @Value("${chat.journal.flush-interval-ms:20}") long flushIntervalMillis,
+                              @Value("${chat.journal.segment-bytes:67108864}") long segmentBytes,
+                              @Value("${chat.journal.path:./chat-journal/messages.log}") String logPath) {
+        this.batchWriter = batchWriter;
+        this.objectMapper = objectMapper;
+        this.capacity = new Semaphore(capacity);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.segmentBytes = segmentBytes;
+        this.logPath = Paths.get(logPath).toAbsolutePath();
+        this.persistLag = meterRegistry.timer("chat.journal.lag");
+    }
+
+    @PostConstruct
+    private void start() throws IOException {
+        Files.createDirectories(logPath.getParent());
+        replay();
+
+        synchronized (logLock) {
+            segments.add(openSegment());
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "chat-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public void append(String roomId, String content, Long senderId, long seq) {
+        ChatJournalEntry entry = new ChatJournalEntry(UUID.randomUUID().toString(), roomId, senderId, content, LocalDateTime.now(), seq);
+
+        if (!acquire()) {
+            log.warn("[ChatMessageJournal] journal is full, reject message for room : {}", roomId);
+            throw new BusinessLogicException(ExceptionCode.CHAT_UNAVAILABLE);
+        }
+        synchronized (logLock) {
+            try {
+                writeLog(entry);
+            } catch (IOException e) {
+                capacity.release();
+                log.error("[ChatMessageJournal] failed to write journal log", e);
+                throw new BusinessLogicException(ExceptionCode.CHAT_UNAVAILABLE);
+            }
+            // 로그와 큐의 순서를 맞추기 위해 같은 락 안에서 넣는다.
+            pending.add(entry);
+            queue.add(entry);
+        }
+    }
+
+    // 방의 afterSeq 이후 메시지 중 아직 DB에 커밋되지 않은 것을 seq 순서로 돌려준다.
+    // DB보다 먼저 호출해야 그 사이에 커밋된 메시지가 양쪽 모두에서 빠지지 않는다.
+    public List<ChatJournalEntry> pendingAfter(String roomId, long afterSeq) {
+        List<ChatJournalEntry> result = new ArrayList<>();
+        for (ChatJournalEntry entry : pending) {
+            if (entry.getRoomId().equals(roomId) && entry.getSeq() != null && entry.getSeq() > afterSeq) {
+                result.add(entry);
+            }
+        }
+        result.sort(Comparator.comparing(ChatJournalEntry::getSeq));
+        return result;
+    }
+
+    private boolean acquire() {
+        try {
+            return capacity.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // 종료 시에는 running만 내리고, 큐에 남은 메시지를 모두 저장한 뒤 빠져나온다.
+    private void flushLoop() {
+        List<ChatJournalEntry> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                ChatJournalEntry first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                flushWithRetry(batch);
+                // 커밋된 뒤에 빼므로, pending을 먼저 보고 DB를 읽으면 사이에 저장된 메시지도 빠지지 않는다.
+                batch.forEach(pending::remove);
+                recordLag(batch);
+                completed(batch.size());
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // 저장하지 못한 메시지는 로그에 남아 다음 기동 때 다시 저장된다.
+            log.error("[ChatMessageJournal] flusher stopped with unsaved messages", e);
+        }
+    }
+
+    // 순서를 지키기 위해 실패한 배치를 건너뛰지 않고 성공할 때까지 재시도한다.
+    private void flushWithRetry(List<ChatJournalEntry> batch) {
+        long backoff = flushIntervalMillis;
+        while (true) {
+            try {
+                batchWriter.write(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("[ChatMessageJournal] flush failed, retry in {}ms", backoff, e);
+                if (!running) {
+                    // 종료 중이면 로그에 남겨두고 다음 기동 때 다시 저장한다.
+                    throw e;
+                }
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, 5000);
+            }
+        }
+    }
+
+    private void recordLag(List<ChatJournalEntry> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ChatJournalEntry entry : batch) {
+            if (!entry.getCreateAt().isBefore(startedAt)) {
+                persistLag.record(Duration.between(entry.getCreateAt(), now));
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 큐 순서대로 저장되므로 저장된 수만큼 오래된 파일부터 채워 나가고, 다 저장된 파일은 지운다.
+    private void completed(int count) {
+        synchronized (logLock) {
+            int remaining = count;
+            while (remaining > 0) {
+                Segment segment = segments.peekFirst();
+                int done = (int) Math.min(remaining, segment.written - segment.persisted);
+                segment.persisted += done;
+                remaining -= done;
+                if (segment == segments.peekLast() || segment.persisted < segment.written) {
+                    break;
+                }
+                segments.pollFirst();
+                deleteSegment(segment);
+            }
+        }
+        capacity.release(count);
+    }
+
+    private void writeLog(ChatJournalEntry entry) throws IOException {
+        Segment active = segments.peekLast();
+        active.writer.write(objectMapper.writeValueAsString(entry));
+        active.writer.write('\n');
+        active.writer.flush();
+        active.written++;
+
+        if (active.channel.position() >= segmentBytes) {
+            rotate();
+        }
+    }
+
+    // 새 파일을 연 뒤에야 지금 파일을 닫으므로, 새 파일을 열지 못하면 지금 파일에 계속 쓴다.
+    private void rotate() {
+        Segment next;
+        try {
+            next = openSegment();
+        } catch (IOException e) {
+            log.error("[ChatMessageJournal] failed to rotate journal log", e);
+            return;
+        }
+        Segment previous = segments.peekLast();
+        segments.add(next);
+        closeSegment(previous);
+        if (previous == segments.peekFirst() && previous.persisted == previous.written) {
+            segments.pollFirst();
+            deleteSegment(previous);
+        }
+    }
+
+    private Segment openSegment() throws IOException {
+        Path path = segmentPath(nextSegmentIndex++);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new Segment(path, channel, Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1));
+    }
+
+    private void closeSegment(Segment segment) {
+        try {
+            segment.writer.close();
+        } catch (IOException e) {
+            log.error("[ChatMessageJournal] failed to close journal log : {}", segment.path, e);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.error("[ChatMessageJournal] failed to delete journal log : {}", segment.path, e);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return logPath.resolveSibling(String.format("%s.%06d", logPath.getFileName(), index));
+    }
+
+    // 이전 프로세스가 저장하지 못한 메시지를 파일 순서대로 다시 저장한다. (이미 저장된 메시지는 batchWriter가 건너뛴다)
+    // 재실행한 메시지는 다운타임만큼 늦게 저장되므로 chat.journal.lag에 넣지 않는다.
+    // 나누기 전의 단일 로그 파일(path 그대로)이 있으면 가장 먼저 저장한다.
+    private void replay() throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        if (Files.exists(logPath)) {
+            files.put(-1L, logPath);
+        }
+        String prefix = logPath.getFileName() + ".";
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(logPath.getParent(), prefix + "*")) {
+            for (Path path : stream) {
+                String suffix = path.getFileName().toString().substring(prefix.length());
+                if (suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty()) {
+                    files.put(Long.parseLong(suffix), path);
+                }
+            }
+        }
+
+        int replayed = 0;
+        for (Path path : files.values()) {
+            replayed += replay(path);
+            Files.delete(path);
+        }
+        if (!files.isEmpty()) {
+            log.info("[ChatMessageJournal] {} messages replayed from {} journal logs", replayed, files.size());
+        }
+    }
+
+    private int replay(Path path) throws IOException {
+        List<ChatJournalEntry> batch = new ArrayList<>(batchSize);
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    batch.add(objectMapper.readValue(line, ChatJournalEntry.class));
+                } catch (IOException e) {
+                    // 죽는 순간 쓰다 만 줄은 건너뛴다.
+                    log.warn("[ChatMessageJournal] skip broken journal line");
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    batchWriter.write(batch);
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchWriter.write(batch);
+            replayed += batch.size();
+        }
+        return replayed;
+    }
+
+    // 모두 저장됐으면 마지막 파일도 지우고, 남은 메시지가 있으면 다음 기동 때 다시 저장하도록 둔다.
+    @PreDestroy
+    private void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        synchronized (logLock) {
+            Segment active = segments.peekLast();
+            closeSegment(active);
+            if (segments.size() == 1 && active.persisted == active.written) {
+                deleteSegment(active);
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final Writer writer;
+        // 이 파일에 쓴 메시지 수와 그중 DB에 저장된 수
+        private long written;
+        private long persisted;
+
+        private Segment(Path path, FileChannel channel, Writer writer) {
+            this.path = path;
+            this.channel = channel;
+            this.writer = writer;
+        }
+    }
+}
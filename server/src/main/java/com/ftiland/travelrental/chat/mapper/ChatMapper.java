@@ -1,6 +1,7 @@
 package com.ftiland.travelrental.chat.mapper;
 
 import com.ftiland.travelrental.chat.dto.ResponseDto;
+import com.ftiland.travelrental.chat.entity.ChatInbox;
 import com.ftiland.travelrental.chat.entity.ChatMessage;
 import com.ftiland.travelrental.chat.entity.ChatRoom;
 import com.ftiland.travelrental.chat.repository.ChatRoomMembersRepository;
@@ -49,19 +50,19 @@ public interface ChatMapper {
         return response;
     }
 
-    default ResponseDto.ChatRooms ChatRoomsToChatRoomList(List<ChatRoom> chatRooms,List<Member> receiverList){
+    default ResponseDto.ChatRooms ChatInboxToChatRoomList(List<ChatInbox> inbox){
         ResponseDto.ChatRooms responses = new ResponseDto.ChatRooms();
 
-        for (int idx=0;idx<chatRooms.size();idx++){
-            ChatRoom chatRoom = chatRooms.get(idx);
-            Member member= receiverList.get(idx);
+        for (ChatInbox chatInbox : inbox){
             ResponseDto.ElementOfChatRoomList response = new ResponseDto.ElementOfChatRoomList();
 
-            response.setChatRoomId(chatRoom.getChatroomId());
-            response.setRoomName(chatRoom.getName());
-            response.setRoomName(chatRoom.getName());
-            response.setImageUrl(member.getImageUrl());
-            response.setDisplayName(member.getDisplayName());
+            response.setChatRoomId(chatInbox.getChatroomId());
+            response.setRoomName(chatInbox.getRoomName());
+            response.setImageUrl(chatInbox.getCounterpartImageUrl());
+            response.setDisplayName(chatInbox.getCounterpartName());
+            response.setLastMessage(chatInbox.getLastMessage());
+            response.setLastMessageAt(chatInbox.getLastMessageAt());
+            response.setUnreadCount(chatInbox.getUnreadCount());
 
             responses.addChatRoom(response);
         }
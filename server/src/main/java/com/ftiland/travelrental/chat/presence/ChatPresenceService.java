@@ -0,0 +1,143 @@
+package com.ftiland.travelrental.chat.presence;
+
+import com.ftiland.travelrental.chat.broker.ChatBroker;
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 접속 상태와 입력 중 표시는 메모리에만 두고 MySQL에는 쓰지 않는다.
+// - presence: (방, 회원) -> 만료 시각과 접속 중인 세션들. CONNECT/PRESENCE 하트비트로 연장되고,
+//   마지막 세션이 나가거나 TTL이 지나면 OFFLINE을 알린다. (탭 하나만 닫았을 때는 알리지 않는다)
+// - typing: (방, 회원)마다 interval 안에 한 번만 전달하고 나머지는 버린다.
+@Slf4j
+@Component
+public class ChatPresenceService {
+
+    private final ChatBroker chatBroker;
+    private final long ttlMillis;
+    private final long typingIntervalMillis;
+
+    private final ConcurrentMap<String, ConcurrentMap<Long, Presence>> presence = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> lastTyping = new ConcurrentHashMap<>();
+
+    public ChatPresenceService(ChatBroker chatBroker,
+                               @Value("${chat.presence.ttl-ms:60000}") long ttlMillis,
+                               @Value("${chat.presence.typing-interval-ms:1000}") long typingIntervalMillis) {
+        this.chatBroker = chatBroker;
+        this.ttlMillis = ttlMillis;
+        this.typingIntervalMillis = typingIntervalMillis;
+    }
+
+    // 새로 ONLINE이 된 경우에만 방에 알린다.
+    // 방 맵을 만들거나 지우는 것과 회원 항목을 바꾸는 것을 같은 presence.compute 안에서 해서,
+    // 빈 방을 지우는 순간 들어온 touch가 지워질 맵에 기록되어 사라지는 일이 없게 한다.
+    public void touch(String roomId, long memberId, String sessionId) {
+        long now = System.currentTimeMillis();
+        boolean[] cameOnline = {false};
+        presence.compute(roomId, (id, members) -> {
+            if (members == null) {
+                members = new ConcurrentHashMap<>();
+            }
+            members.compute(memberId, (mid, current) -> {
+                if (current == null || current.expiresAt < now) {
+                    cameOnline[0] = true;
+                    current = new Presence();
+                }
+                current.expiresAt = now + ttlMillis;
+                current.sessionIds.add(sessionId);
+                return current;
+            });
+            return members;
+        });
+        if (cameOnline[0]) {
+            chatBroker.publish(roomId, ChatMessageDto.presence(roomId, memberId, ChatMessageDto.ONLINE));
+        }
+    }
+
+    // 같은 회원의 다른 세션이 방에 남아 있으면 OFFLINE을 알리지 않는다.
+    public void leave(String roomId, long memberId, String sessionId) {
+        boolean[] wentOffline = {false};
+        presence.computeIfPresent(roomId, (id, members) -> {
+            members.computeIfPresent(memberId, (mid, current) -> {
+                current.sessionIds.remove(sessionId);
+                if (!current.sessionIds.isEmpty()) {
+                    return current;
+                }
+                wentOffline[0] = true;
+                return null;
+            });
+            return members.isEmpty() ? null : members;
+        });
+        if (wentOffline[0]) {
+            chatBroker.publish(roomId, ChatMessageDto.presence(roomId, memberId, ChatMessageDto.OFFLINE));
+        }
+    }
+
+    public List<Long> onlineMembers(String roomId) {
+        ConcurrentMap<Long, Presence> members = presence.get(roomId);
+        if (members == null) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        List<Long> online = new ArrayList<>();
+        members.forEach((memberId, current) -> {
+            if (current.expiresAt >= now) {
+                online.add(memberId);
+            }
+        });
+        return online;
+    }
+
+    // 마지막으로 전달한 뒤 interval이 지났을 때만 전달한다.
+    public void typing(String roomId, long memberId) {
+        long now = System.currentTimeMillis();
+        boolean[] allowed = {false};
+        lastTyping.compute(roomId + ":" + memberId, (key, last) -> {
+            if (last == null || now - last >= typingIntervalMillis) {
+                allowed[0] = true;
+                return now;
+            }
+            return last;
+        });
+        if (allowed[0]) {
+            chatBroker.publish(roomId, ChatMessageDto.typing(roomId, memberId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.sweep-interval-ms:10000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (String roomId : presence.keySet()) {
+            List<Long> expired = new ArrayList<>();
+            // 같은 compute 안에서 확인하므로 그 사이 하트비트로 연장된 회원은 지우지 않는다.
+            presence.computeIfPresent(roomId, (id, members) -> {
+                members.entrySet().removeIf(entry -> {
+                    if (entry.getValue().expiresAt >= now) {
+                        return false;
+                    }
+                    expired.add(entry.getKey());
+                    return true;
+                });
+                return members.isEmpty() ? null : members;
+            });
+            for (Long memberId : expired) {
+                chatBroker.publish(roomId, ChatMessageDto.presence(roomId, memberId, ChatMessageDto.OFFLINE));
+            }
+        }
+        lastTyping.values().removeIf(last -> now - last >= typingIntervalMillis);
+    }
+
+    // 만료 시각과 세션 목록은 presence.compute 안에서만 바꾼다.
+    private static final class Presence {
+        private volatile long expiresAt;
+        private final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+    }
+}
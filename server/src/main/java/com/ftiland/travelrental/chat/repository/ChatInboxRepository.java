@@ -0,0 +1,26 @@
+package com.ftiland.travelrental.chat.repository;
+
+import com.ftiland.travelrental.chat.entity.ChatInbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ChatInboxRepository extends JpaRepository<ChatInbox, Long> {
+
+    // (member_id, last_message_at) 인덱스 한 번으로 채팅방 목록을 만든다.
+    List<ChatInbox> findByMemberIdOrderByLastMessageAtDesc(Long memberId);
+
+    @Modifying
+    @Query("UPDATE ChatInbox i SET i.unreadCount = 0 WHERE i.memberId = :memberId AND i.chatroomId = :roomId")
+    int markRead(@Param("memberId") Long memberId, @Param("roomId") String roomId);
+
+    @Modifying
+    @Query("UPDATE ChatInbox i SET i.counterpartName = :displayName, i.counterpartImageUrl = :imageUrl " +
+            "WHERE i.counterpartId = :memberId")
+    int updateCounterpart(@Param("memberId") Long memberId,
+                          @Param("displayName") String displayName,
+                          @Param("imageUrl") String imageUrl);
+}
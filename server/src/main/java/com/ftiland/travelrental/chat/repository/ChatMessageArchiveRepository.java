@@ -0,0 +1,26 @@
+package com.ftiland.travelrental.chat.repository;
+
+import com.ftiland.travelrental.chat.entity.ChatMessageArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChatMessageArchiveRepository extends JpaRepository<ChatMessageArchive, String> {
+
+    boolean existsByChatroomId(String chatroomId);
+
+    @Query("SELECT a FROM ChatMessageArchive a WHERE a.chatroomId = :roomId " +
+            "ORDER BY a.lastCreateAt DESC, a.lastMessageId DESC")
+    List<ChatMessageArchive> findLatest(@Param("roomId") String roomId, Pageable pageable);
+
+    // 커서보다 이전 메시지를 하나라도 포함할 수 있는 세그먼트 (세그먼트끼리는 구간이 겹치지 않는다)
+    @Query("SELECT a FROM ChatMessageArchive a WHERE a.chatroomId = :roomId AND a.firstCreateAt <= :createAt " +
+            "ORDER BY a.lastCreateAt DESC, a.lastMessageId DESC")
+    List<ChatMessageArchive> findBefore(@Param("roomId") String roomId,
+                                        @Param("createAt") LocalDateTime createAt,
+                                        Pageable pageable);
+}
@@ -1,14 +1,58 @@
 package com.ftiland.travelrental.chat.repository;
 
+import com.ftiland.travelrental.chat.archive.ArchivedChatMessage;
+import com.ftiland.travelrental.chat.dto.ChatHistoryDto;
 import com.ftiland.travelrental.chat.entity.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage,String> {
 
     @Query("SELECT cm FROM ChatMessage cm JOIN ChatRoomMembers crm ON cm.chatroom.chatroomId = crm.chatroom.chatroomId WHERE crm.member.memberId = :memberId ")
     List<ChatMessage> findByMemberId(@Param("memberId") long memberId);
+
+    // (chatroom_id, create_at, message_id) 인덱스를 역순으로 읽어 limit 만큼만 가져온다.
+    @Query("SELECT new com.ftiland.travelrental.chat.dto.ChatHistoryDto(m.messageId, m.content, m.senderId, m.createAt) " +
+            "FROM ChatMessage m " +
+            "WHERE m.chatroom.chatroomId = :roomId " +
+            "ORDER BY m.createAt DESC, m.messageId DESC")
+    List<ChatHistoryDto> findHistoryFirst(@Param("roomId") String roomId, Pageable pageable);
+
+    @Query("SELECT new com.ftiland.travelrental.chat.dto.ChatHistoryDto(m.messageId, m.content, m.senderId, m.createAt) " +
+            "FROM ChatMessage m " +
+            "WHERE m.chatroom.chatroomId = :roomId " +
+            "AND (m.createAt < :createAt OR (m.createAt = :createAt AND m.messageId < :messageId)) " +
+            "ORDER BY m.createAt DESC, m.messageId DESC")
+    List<ChatHistoryDto> findHistoryBefore(@Param("roomId") String roomId,
+                                           @Param("createAt") LocalDateTime createAt,
+                                           @Param("messageId") String messageId,
+                                           Pageable pageable);
+
+    // (chatroom_id, seq) 인덱스로 afterSeq 다음 메시지부터 읽는다.
+    @Query("SELECT m FROM ChatMessage m WHERE m.chatroom.chatroomId = :roomId AND m.seq > :afterSeq ORDER BY m.seq ASC")
+    List<ChatMessage> findBySeqAfter(@Param("roomId") String roomId, @Param("afterSeq") long afterSeq, Pageable pageable);
+
+    @Query("SELECT m FROM ChatMessage m WHERE m.chatroom.chatroomId = :roomId ORDER BY m.createAt ASC, m.messageId ASC")
+    List<ChatMessage> findByRoomId(@Param("roomId") String roomId);
+
+    @Query("SELECT DISTINCT m.chatroom.chatroomId FROM ChatMessage m WHERE m.createAt < :cutoff")
+    List<String> findRoomIdsToArchive(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("SELECT new com.ftiland.travelrental.chat.archive.ArchivedChatMessage(m.messageId, m.content, m.senderId, m.createAt, m.seq) " +
+            "FROM ChatMessage m " +
+            "WHERE m.chatroom.chatroomId = :roomId AND m.createAt < :cutoff " +
+            "ORDER BY m.createAt ASC, m.messageId ASC")
+    List<ArchivedChatMessage> findArchivable(@Param("roomId") String roomId,
+                                             @Param("cutoff") LocalDateTime cutoff,
+                                             Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ChatMessage m WHERE m.messageId IN :messageIds")
+    int deleteByMessageIds(@Param("messageIds") List<String> messageIds);
 }
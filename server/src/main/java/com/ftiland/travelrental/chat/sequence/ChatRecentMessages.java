@@ -0,0 +1,85 @@
+package com.ftiland.travelrental.chat.sequence;
+
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 방마다 최근 메시지를 seq로 찾을 수 있는 링 버퍼에 둔다. 재접속한 클라이언트가 놓친 메시지를 DB 없이 다시 보내는 데 쓴다.
+// 슬롯은 seq로 정해지므로 번호 순서와 다르게 들어와도 된다.
+@Component
+public class ChatRecentMessages {
+
+    private final int capacity;
+    private final ConcurrentMap<String, Ring> rings = new ConcurrentHashMap<>();
+
+    public ChatRecentMessages(@Value("${chat.sequence.buffer-size:256}") int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two : " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public void append(ChatMessageDto message) {
+        rings.computeIfAbsent(message.getRoomId(), id -> new Ring(capacity)).add(message);
+    }
+
+    // afterSeq 다음부터 마지막 메시지까지 빠짐없이 버퍼에 있으면 seq 순서로 돌려주고, 아니면 null
+    public List<ChatMessageDto> since(String roomId, long afterSeq) {
+        Ring ring = rings.get(roomId);
+        if (ring == null) {
+            return null;
+        }
+        return ring.since(afterSeq);
+    }
+
+    // 이 노드가 본 방의 가장 큰 seq. 본 적이 없으면 0
+    public long lastSeq(String roomId) {
+        Ring ring = rings.get(roomId);
+        return ring == null ? 0 : ring.lastSeq();
+    }
+
+    // 이 노드에 방 세션이 모두 나가면 비운다.
+    public void evict(String roomId) {
+        rings.remove(roomId);
+    }
+
+    private static final class Ring {
+        private final ChatMessageDto[] messages;
+        private final int mask;
+        private long lastSeq;
+
+        private Ring(int capacity) {
+            this.messages = new ChatMessageDto[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private synchronized void add(ChatMessageDto message) {
+            messages[(int) (message.getSeq() & mask)] = message;
+            lastSeq = Math.max(lastSeq, message.getSeq());
+        }
+
+        private synchronized long lastSeq() {
+            return lastSeq;
+        }
+
+        private synchronized List<ChatMessageDto> since(long afterSeq) {
+            if (lastSeq - afterSeq > messages.length) {
+                return null;
+            }
+            List<ChatMessageDto> result = new ArrayList<>();
+            for (long seq = afterSeq + 1; seq <= lastSeq; seq++) {
+                ChatMessageDto message = messages[(int) (seq & mask)];
+                if (message == null || message.getSeq() != seq) {
+                    return null;
+                }
+                result.add(message);
+            }
+            return result;
+        }
+    }
+}
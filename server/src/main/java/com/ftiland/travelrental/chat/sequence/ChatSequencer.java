@@ -0,0 +1,8 @@
+package com.ftiland.travelrental.chat.sequence;
+
+// 방마다 1씩 증가하는 메시지 번호를 매긴다.
+// 재기동하면 chat_room.last_seq(저장된 메시지 중 가장 큰 번호) 다음부터 이어서 매긴다.
+public interface ChatSequencer {
+
+    long next(String roomId);
+}
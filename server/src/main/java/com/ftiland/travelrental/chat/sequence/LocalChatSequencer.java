@@ -0,0 +1,69 @@
+package com.ftiland.travelrental.chat.sequence;
+
+import com.ftiland.travelrental.chat.repository.ChatRoomRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 단일 인스턴스용: 메모리의 카운터로 번호를 매기고, 방마다 처음 한 번만 DB의 high-water mark를 읽는다.
+// 번호를 매긴 메시지는 저널 로그에 먼저 기록되므로 죽었다 살아나도 재실행 후의 last_seq가 마지막으로 매긴 번호가 된다.
+// 오래 안 쓴 방의 카운터는 DB가 따라잡은 뒤에만 지운다. 다시 쓰면 DB에서 이어서 읽는다.
+@Component
+@ConditionalOnProperty(name = "chat.broker", havingValue = "local", matchIfMissing = true)
+public class LocalChatSequencer implements ChatSequencer {
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final long idleMillis;
+
+    private final ConcurrentMap<String, Counter> sequences = new ConcurrentHashMap<>();
+
+    public LocalChatSequencer(ChatRoomRepository chatRoomRepository,
+                              @Value("${chat.sequence.idle-ms:600000}") long idleMillis) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.idleMillis = idleMillis;
+    }
+
+    @Override
+    public long next(String roomId) {
+        long[] issued = new long[1];
+        // 증가를 compute 안에서 해야 sweep이 지운 카운터에 번호를 매기는 일이 없다.
+        sequences.compute(roomId, (id, counter) -> {
+            if (counter == null) {
+                counter = new Counter(chatRoomRepository.findLastSeq(id));
+            }
+            issued[0] = ++counter.value;
+            counter.lastUsed = System.currentTimeMillis();
+            return counter;
+        });
+        return issued[0];
+    }
+
+    @Scheduled(fixedDelayString = "${chat.sequence.sweep-interval-ms:60000}")
+    public void sweep() {
+        long idleBefore = System.currentTimeMillis() - idleMillis;
+        for (Map.Entry<String, Counter> entry : new ArrayList<>(sequences.entrySet())) {
+            if (entry.getValue().lastUsed >= idleBefore) {
+                continue;
+            }
+            // 저널에 남은 메시지가 아직 DB에 안 들어갔으면 다시 읽은 값이 작아지므로 지우지 않는다.
+            long persisted = chatRoomRepository.findLastSeq(entry.getKey());
+            sequences.computeIfPresent(entry.getKey(), (id, counter) ->
+                    counter.lastUsed < idleBefore && counter.value <= persisted ? null : counter);
+        }
+    }
+
+    private static final class Counter {
+        private long value;
+        private long lastUsed;
+
+        private Counter(long value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ftiland.travelrental.chat.sequence;
+
+import com.ftiland.travelrental.chat.repository.ChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 여러 인스턴스용: 같은 방에 여러 노드가 번호를 매기므로 redis INCR로 매긴다.
+// 키가 없으면 (redis 재시작, 키 유실 등) 매번 DB의 high-water mark로 먼저 채운다.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chat.broker", havingValue = "redis")
+public class RedisChatSequencer implements ChatSequencer {
+
+    private static final String KEY_PREFIX = "chat:seq:";
+
+    // 키가 있을 때만 INCR한다. 없으면 -1을 돌려줘 DB에서 시작 값을 읽게 한다.
+    private static final RedisScript<Long> INCR_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+            "  return redis.call('INCR', KEYS[1]) " +
+            "end " +
+            "return -1", Long.class);
+
+    // 시작 값 채우기와 INCR을 한 번에 한다. 다른 노드가 먼저 채웠으면 그 값을 이어서 쓴다.
+    private static final RedisScript<Long> SEED_AND_INCR = new DefaultRedisScript<>(
+            "redis.call('SET', KEYS[1], ARGV[1], 'NX') " +
+            "return redis.call('INCR', KEYS[1])", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ChatRoomRepository chatRoomRepository;
+
+    @Override
+    public long next(String roomId) {
+        List<String> keys = List.of(KEY_PREFIX + roomId);
+        Long seq = redisTemplate.execute(INCR_IF_EXISTS, keys);
+        if (seq != null && seq > 0) {
+            return seq;
+        }
+        return redisTemplate.execute(SEED_AND_INCR, keys, String.valueOf(chatRoomRepository.findLastSeq(roomId)));
+    }
+}
@@ -1,37 +1,42 @@
 package com.ftiland.travelrental.chat.service;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftiland.travelrental.chat.codec.ChatBinaryCodec;
+import com.ftiland.travelrental.chat.codec.ChatCodecSession;
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
 import com.ftiland.travelrental.chat.dto.ChatRoomDto;
+import com.ftiland.travelrental.chat.session.ChatOutboundSessions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
-import javax.annotation.PostConstruct;
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class ChatDtoService {
 
+    private final ChatOutboundSessions chatOutboundSessions;
     private final ObjectMapper objectMapper;
-    private Map<String, ChatRoomDto> chatRooms;
 
-    @PostConstruct
-    private void init() {
-        chatRooms = new LinkedHashMap<>();
-    }
+    // WebSocket I/O 스레드들이 동시에 접근하므로 방 생성/입장/퇴장/삭제는 모두 compute 계열로 원자적으로 처리한다.
+    private final ConcurrentMap<String, ChatRoomDto> chatRooms = new ConcurrentHashMap<>();
 
     public ChatRoomDto findRoomById(String roomId) {
         return chatRooms.get(roomId);
     }
 
-    public void putChatRooms(String roomId,ChatRoomDto chatRoomDto){
-        chatRooms.put(roomId,chatRoomDto);
+    // 이미 다른 스레드가 등록한 방이 있으면 그 방을 돌려준다.
+    public ChatRoomDto putChatRooms(String roomId, ChatRoomDto chatRoomDto) {
+        ChatRoomDto existing = chatRooms.putIfAbsent(roomId, chatRoomDto);
+        return existing != null ? existing : chatRoomDto;
     }
 
     public ChatRoomDto createRoom(String name) {
@@ -39,27 +44,100 @@ public class ChatDtoService {
         ChatRoomDto chatRoom = ChatRoomDto.builder()
                 .roomId(randomId)
                 .name(name)
-                .sessions(new HashSet<WebSocketSession>())
+                .sessions(ChatRoomDto.newSessionSet())
                 .build();
         chatRooms.put(randomId, chatRoom);
         return chatRoom;
     }
 
-    public <T> void sendMessage(WebSocketSession session, T message) {
-        try{
-            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
-        } catch (IOException e) {
-            log.error(e.getMessage(), e);
+    // 방이 퇴장 처리로 막 지워졌더라도 다시 만들어서 입장시킨다.
+    // 새로 들어온 세션이면 true
+    public boolean joinRoom(String roomId, String name, WebSocketSession session) {
+        boolean[] added = {false};
+        chatRooms.compute(roomId, (id, room) -> {
+            if (room == null) {
+                room = ChatRoomDto.builder()
+                        .roomId(id)
+                        .name(name)
+                        .sessions(ChatRoomDto.newSessionSet())
+                        .build();
+            }
+            added[0] = room.getSessions().add(session);
+            return room;
+        });
+        return added[0];
+    }
+
+    // 마지막 세션이 나가면 같은 원자적 연산 안에서 방을 지운다.
+    // 실제로 방에 있던 세션이면 true
+    public boolean leaveRoom(String roomId, WebSocketSession session) {
+        boolean[] removed = {false};
+        chatRooms.computeIfPresent(roomId, (id, room) -> {
+            removed[0] = room.getSessions().remove(session);
+            return room.getSessions().isEmpty() ? null : room;
+        });
+        return removed[0];
+    }
+
+    public int countSessions(String roomId) {
+        ChatRoomDto room = chatRooms.get(roomId);
+        return room == null ? 0 : room.getSessions().size();
+    }
+
+    // 이미 직렬화된 메시지를 이 노드에 접속한 방의 세션들에게 보낸다.
+    // 메시지 객체는 프로토콜별로 한 번만 만들어 모든 세션이 공유하고, 세션별 전송은 버퍼가 있는 데코레이터가 처리한다.
+    // 바이너리 세션은 방 참조만 세션마다 다르므로 본문은 한 번만 인코딩한다.
+    public void deliver(String roomId, String payload) {
+        ChatRoomDto room = chatRooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        TextMessage message = null;
+        byte[] body = null;
+        for (WebSocketSession session : room.getSessions()) {
+            ChatCodecSession codec = ChatCodecSession.of(session);
+            if (codec == null) {
+                if (message == null) {
+                    message = new TextMessage(payload);
+                }
+                chatOutboundSessions.send(session, message);
+                continue;
+            }
+            if (body == null) {
+                try {
+                    body = ChatBinaryCodec.encodeBody(objectMapper.readValue(payload, ChatMessageDto.class));
+                } catch (JsonProcessingException e) {
+                    log.error(e.getMessage(), e);
+                    return;
+                }
+            }
+            sendBinary(session, codec, roomId, body);
+        }
+    }
+
+    // 한 세션에게만 보낸다. (입장 시 접속자 목록 등)
+    public void send(WebSocketSession session, ChatMessageDto chatMessage) throws JsonProcessingException {
+        ChatCodecSession codec = ChatCodecSession.of(session);
+        if (codec == null) {
+            chatOutboundSessions.send(session, new TextMessage(objectMapper.writeValueAsString(chatMessage)));
+        } else {
+            sendBinary(session, codec, chatMessage.getRoomId(), ChatBinaryCodec.encodeBody(chatMessage));
+        }
+    }
+
+    // 방 번호를 매기는 순서와 전송 큐에 들어가는 순서가 같아야 하므로 세션 단위로 묶어서 처리한다.
+    private void sendBinary(WebSocketSession session, ChatCodecSession codec, String roomId, byte[] body) {
+        synchronized (codec) {
+            chatOutboundSessions.send(session, codec.frame(roomId, body));
         }
     }
+
+    // 세션이 남아있지 않은 경우에만 지운다.
     public void removeChatRoom(String roomId){
-        chatRooms.remove(roomId);
+        chatRooms.computeIfPresent(roomId, (id, room) -> room.getSessions().isEmpty() ? null : room);
     }
 
     public boolean findUseChatRoom(String roomId){
-        if(chatRooms.get(roomId) == null){
-            return false;
-        }
-        return true;
+        return chatRooms.containsKey(roomId);
     }
 }
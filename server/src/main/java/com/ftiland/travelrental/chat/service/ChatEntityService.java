@@ -1,24 +1,36 @@
 package com.ftiland.travelrental.chat.service;
 
+import com.ftiland.travelrental.chat.archive.ChatArchiveService;
+import com.ftiland.travelrental.chat.dto.ChatHistory;
+import com.ftiland.travelrental.chat.dto.ChatHistoryDto;
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import com.ftiland.travelrental.chat.entity.ChatInbox;
 import com.ftiland.travelrental.chat.entity.ChatMessage;
+import com.ftiland.travelrental.chat.journal.ChatJournalEntry;
+import com.ftiland.travelrental.chat.journal.ChatMessageJournal;
 import com.ftiland.travelrental.chat.entity.ChatRoom;
 import com.ftiland.travelrental.chat.entity.ChatRoomMembers;
 
 import com.ftiland.travelrental.chat.repository.ChatRoomMembersRepository;
+import com.ftiland.travelrental.chat.repository.ChatInboxRepository;
 import com.ftiland.travelrental.chat.repository.ChatMessageRepository;
 
 import com.ftiland.travelrental.chat.repository.ChatRoomRepository;
+import com.ftiland.travelrental.common.KeysetCursor;
 import com.ftiland.travelrental.common.exception.BusinessLogicException;
 import com.ftiland.travelrental.common.exception.ExceptionCode;
 import com.ftiland.travelrental.member.entity.Member;
 import com.ftiland.travelrental.member.service.MemberService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 public class ChatEntityService {
@@ -26,51 +38,108 @@ public class ChatEntityService {
     private ChatRoomMembersRepository chatRoomMembersRepository;
     private ChatMessageRepository chatMessageRepository;
     private MemberService memberService;
+    private ChatMessageJournal chatMessageJournal;
+    private ChatInboxRepository chatInboxRepository;
+    private ChatArchiveService chatArchiveService;
 
 
     @Autowired
-    public void ChatService( ChatRoomRepository chatRoomRepository, ChatMessageRepository chatMessageRepository, MemberService memberService,ChatRoomMembersRepository chatRoomMembersRepository){
+    public void ChatService( ChatRoomRepository chatRoomRepository, ChatMessageRepository chatMessageRepository, MemberService memberService,ChatRoomMembersRepository chatRoomMembersRepository, ChatMessageJournal chatMessageJournal, ChatInboxRepository chatInboxRepository, ChatArchiveService chatArchiveService){
         this.chatRoomRepository= chatRoomRepository;
         this.chatRoomMembersRepository=chatRoomMembersRepository;
         this.chatMessageRepository = chatMessageRepository;
         this.memberService = memberService;
+        this.chatMessageJournal = chatMessageJournal;
+        this.chatInboxRepository = chatInboxRepository;
+        this.chatArchiveService = chatArchiveService;
     }
 
-    public void storeChatMessage(String roomId,String content,Long senderId){
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId).orElseThrow(()-> new BusinessLogicException(ExceptionCode.NOT_EXISTS));
+    // WebSocket 스레드에서는 저널에 기록만 하고, DB 저장은 ChatMessageJournal이 배치로 처리한다.
+    public void storeChatMessage(String roomId,String content,Long senderId,long seq){
+        chatMessageJournal.append(roomId, content, senderId, seq);
+    }
 
-        ChatMessage chatMessage = ChatMessage
-                .builder()
-                .messageId(UUID.randomUUID().toString())
-                .content(content)
-                .senderId(senderId)
-                .chatroom(chatRoom)
-                .createAt(LocalDateTime.now())
-                .build();
-        chatRoom.setUpdateAt(LocalDateTime.now());
+    // 최근 메시지 버퍼에 없는 구간을 재접속 시 다시 보낼 때 쓴다. 그보다 오래된 메시지는 이전 메시지 API로 불러온다.
+    // 저널에서 아직 저장 중인 메시지를 먼저 읽고 DB를 읽어서 합친다. (그 사이에 커밋된 메시지는 DB 쪽에서 보인다)
+    // 다른 노드의 저널에만 있는 메시지는 여기서 보이지 않으므로, 호출한 쪽이 번호가 비는지 확인한다.
+    public List<ChatMessageDto> findMessagesAfterSeq(String roomId, long afterSeq, int limit){
+        TreeMap<Long, ChatMessageDto> messages = new TreeMap<>();
+        for (ChatJournalEntry entry : chatMessageJournal.pendingAfter(roomId, afterSeq)) {
+            messages.put(entry.getSeq(), toTalk(roomId, entry.getSenderId(), entry.getContent(), entry.getSeq()));
+        }
+        for (ChatMessage message : chatMessageRepository.findBySeqAfter(roomId, afterSeq, PageRequest.of(0, limit))) {
+            messages.putIfAbsent(message.getSeq(), toTalk(roomId, message.getSenderId(), message.getContent(), message.getSeq()));
+        }
+        List<ChatMessageDto> result = new ArrayList<>(Math.min(limit, messages.size()));
+        for (ChatMessageDto message : messages.values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(message);
+        }
+        return result;
+    }
 
-        chatMessageRepository.save(chatMessage);
+    private ChatMessageDto toTalk(String roomId, Long senderId, String content, long seq) {
+        ChatMessageDto dto = new ChatMessageDto();
+        dto.setType(ChatMessageDto.MessageType.TALK);
+        dto.setRoomId(roomId);
+        dto.setSenderId(senderId);
+        dto.setContent(content);
+        dto.setSeq(seq);
+        return dto;
     }
 
-    public ChatRoom storeChatRoom(long member1,long member2, String roomId, String name){
+    // 같은 회원 쌍과 상품으로 동시에 만들면 uk_chat_room_pair 위반으로 DataIntegrityViolationException이 나고 전체가 롤백된다.
+    @Transactional
+    public ChatRoom storeChatRoom(long member1,long member2, String roomId, String name, String productId){
         ChatRoom chatRoom = new ChatRoom();
         chatRoom.setName(name);
         chatRoom.setChatroomId(roomId);
-        chatRoomRepository.save(chatRoom);
+        chatRoom.setParticipants(member1, member2, productId);
+        chatRoomRepository.saveAndFlush(chatRoom);
+
+        Member first = storeChatRoomMembers(member1,chatRoom);
+        Member second = storeChatRoomMembers(member2,chatRoom);
 
-        storeChatRoomMembers(member1,chatRoom);
-        storeChatRoomMembers(member2,chatRoom);
+        // 채팅방 목록용 inbox를 양쪽 회원 모두에게 만든다.
+        chatInboxRepository.saveAll(List.of(
+                createInbox(first, second, chatRoom),
+                createInbox(second, first, chatRoom)));
 
         return chatRoom;
     }
 
-    public void storeChatRoomMembers(long memberId,ChatRoom chatRoom){
+    public Member storeChatRoomMembers(long memberId,ChatRoom chatRoom){
+        Member member = memberService.findMember(memberId);
         ChatRoomMembers chatRoomMembers = ChatRoomMembers.builder()
                 .chatroom(chatRoom)
-                .member(memberService.findMember(memberId))
+                .member(member)
                 .build();
 
         chatRoomMembersRepository.save(chatRoomMembers);
+        return member;
+    }
+
+    private ChatInbox createInbox(Member owner, Member counterpart, ChatRoom chatRoom) {
+        return ChatInbox.builder()
+                .memberId(owner.getMemberId())
+                .chatroomId(chatRoom.getChatroomId())
+                .roomName(chatRoom.getName())
+                .counterpartId(counterpart.getMemberId())
+                .counterpartName(counterpart.getDisplayName())
+                .counterpartImageUrl(counterpart.getImageUrl())
+                .lastMessageAt(LocalDateTime.now())
+                .build();
+    }
+
+    public List<ChatInbox> findInbox(Long memberId) {
+        return chatInboxRepository.findByMemberIdOrderByLastMessageAtDesc(memberId);
+    }
+
+    @Transactional
+    public void markRead(String roomId, Long memberId) {
+        chatInboxRepository.markRead(memberId, roomId);
     }
 
     public boolean verifyChatroomMember(String roomId,long memberId){
@@ -83,12 +152,48 @@ public class ChatEntityService {
     return validAccess;
     }
 
-    public ArrayList<ChatMessage> findChatroomMessages(String chatroomId){
-        ArrayList<ChatMessage> messages = chatRoomRepository.findByRoomId(chatroomId);
+    public List<ChatMessage> findChatroomMessages(String chatroomId){
+        List<ChatMessage> messages = chatMessageRepository.findByRoomId(chatroomId);
 
         return messages;
     }
 
+    @Transactional
+    public ChatHistory findChatHistory(String roomId, Long memberId, int size, String before) {
+        if (!verifyChatroomMember(roomId, memberId)) {
+            throw new BusinessLogicException(ExceptionCode.UNAUTHORIZED_ACCESS);
+        }
+
+        PageRequest limit = PageRequest.of(0, size + 1);
+        KeysetCursor cursor = before == null ? null : KeysetCursor.decode(before);
+        List<ChatHistoryDto> messages;
+        if (cursor == null) {
+            // 채팅방에 들어와 최신 메시지를 본 시점에 안 읽은 수를 초기화한다.
+            chatInboxRepository.markRead(memberId, roomId);
+            messages = chatMessageRepository.findHistoryFirst(roomId, limit);
+        } else {
+            messages = chatMessageRepository.findHistoryBefore(roomId, cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+
+        // hot 테이블에서 모자란 만큼 아카이브 세그먼트에서 이어서 읽는다.
+        if (messages.size() <= size) {
+            LocalDateTime createdAt = null;
+            String messageId = null;
+            if (!messages.isEmpty()) {
+                ChatHistoryDto oldest = messages.get(messages.size() - 1);
+                createdAt = oldest.getCreatedAt();
+                messageId = oldest.getMessageId();
+            } else if (cursor != null) {
+                createdAt = cursor.getCreatedAt();
+                messageId = cursor.getId();
+            }
+            messages = new ArrayList<>(messages);
+            messages.addAll(chatArchiveService.findBefore(roomId, createdAt, messageId, size + 1 - messages.size()));
+        }
+
+        return ChatHistory.of(roomId, messages, size);
+    }
+
     public List<ChatRoom> existsChatRooms(Long memberId){
         List<ChatRoom> rooms = chatRoomRepository.findChatRoomsByUserId(memberId);
 
@@ -101,19 +206,16 @@ public class ChatEntityService {
         return messages;
     }
 
-    public ChatRoom findChatRoom(Long memberId,Long memberId2){
-        return chatRoomRepository.findChatRoomsWithMembers(memberId,memberId2).orElseThrow(()-> new BusinessLogicException(ExceptionCode.NOT_EXISTS));
+    public ChatRoom findChatRoom(Long memberId,Long memberId2,String productId){
+        return findChatRoomByParticipants(memberId,memberId2,productId).orElseThrow(()-> new BusinessLogicException(ExceptionCode.NOT_EXISTS));
     }
 
-    public Boolean existsChatRooms(Long memberId1, Long memberId2){
-        if(chatRoomRepository.findChatRoomsWithMembers(memberId1,memberId2).isPresent()){
-            return true;
-        }
-        return false;
+    public Boolean existsChatRooms(Long memberId1, Long memberId2, String productId){
+        return findChatRoomByParticipants(memberId1,memberId2,productId).isPresent();
     }
-    public Member findReceiver(Long senderId,String roomId){
-        Member receiver = chatRoomMembersRepository.findByReceiverId(roomId,senderId).orElseThrow(()-> new BusinessLogicException(ExceptionCode.MEMBER_NOT_FOUND));
 
-        return receiver;
+    public Optional<ChatRoom> findChatRoomByParticipants(long memberId1, long memberId2, String productId){
+        return chatRoomRepository.findByParticipants(Math.min(memberId1, memberId2), Math.max(memberId1, memberId2),
+                productId, PageRequest.of(0, 1)).stream().findFirst();
     }
 }
@@ -0,0 +1,43 @@
+package com.ftiland.travelrental.chat.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// inbox가 도입되기 전에 만들어진 채팅방의 inbox를 채운다. 이미 있는 줄은 건드리지 않는다.
+// 여러 노드가 동시에 기동해 같은 줄을 넣으려 해도 INSERT IGNORE라 먼저 들어간 줄이 남는다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatInboxBackfill {
+
+    private static final String BACKFILL =
+            "INSERT IGNORE INTO chat_inbox (member_id, chatroom_id, room_name, counterpart_id, counterpart_name, counterpart_image_url, " +
+                    "last_message, last_message_at, unread_count, created_at, updated_at) " +
+                    "SELECT me.member_id, me.chatroom_id, cr.name, other.member_id, m.display_name, m.image_url, " +
+                    "(SELECT LEFT(cm.content, 100) FROM chat_message cm WHERE cm.chatroom_id = me.chatroom_id " +
+                    "ORDER BY cm.create_at DESC, cm.message_id DESC LIMIT 1), " +
+                    "COALESCE(cr.update_at, cr.created_at), 0, NOW(), NOW() " +
+                    "FROM chat_room_members me " +
+                    "JOIN chat_room_members other ON other.chatroom_id = me.chatroom_id AND other.member_id <> me.member_id " +
+                    "JOIN member m ON m.member_id = other.member_id " +
+                    "JOIN chat_room cr ON cr.chatroom_id = me.chatroom_id " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM chat_inbox ci WHERE ci.member_id = me.member_id AND ci.chatroom_id = me.chatroom_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int inserted = jdbcTemplate.update(BACKFILL);
+            log.info("[ChatInboxBackfill] {} inbox rows created", inserted);
+        } catch (DataAccessException e) {
+            // 채우지 못한 줄은 다음 기동 때 다시 채우므로 기동을 막지 않는다.
+            log.error("[ChatInboxBackfill] backfill failed", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ftiland.travelrental.chat.service;
+
+import com.ftiland.travelrental.chat.repository.ChatInboxRepository;
+import com.ftiland.travelrental.member.event.MemberProfileUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// 상대방 채팅방 목록에 비정규화된 이름/이미지를 갱신한다.
+// 회원 수정과 같은 트랜잭션에서 실행되므로 둘 중 하나만 반영되는 일은 없다.
+@Component
+@RequiredArgsConstructor
+public class ChatInboxProfileListener {
+
+    private final ChatInboxRepository chatInboxRepository;
+
+    @EventListener
+    public void onProfileUpdated(MemberProfileUpdatedEvent event) {
+        chatInboxRepository.updateCounterpart(event.getMemberId(), event.getDisplayName(), event.getImageUrl());
+    }
+}
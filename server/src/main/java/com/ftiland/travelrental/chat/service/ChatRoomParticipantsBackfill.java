@@ -0,0 +1,32 @@
+package com.ftiland.travelrental.chat.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// 회원 쌍 키가 도입되기 전에 만들어진 채팅방의 member_low_id/member_high_id를 채운다.
+// product_id는 알 수 없으므로 비워두고, 조회 시 상품별 방이 없으면 이 방을 쓴다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatRoomParticipantsBackfill {
+
+    // 부하 테스트용 H2에서도 돌도록 UPDATE ... JOIN 대신 상관 서브쿼리를 쓴다.
+    private static final String BACKFILL =
+            "UPDATE chat_room cr " +
+                    "SET member_low_id = (SELECT MIN(m.member_id) FROM chat_room_members m WHERE m.chatroom_id = cr.chatroom_id), " +
+                    "member_high_id = (SELECT MAX(m.member_id) FROM chat_room_members m WHERE m.chatroom_id = cr.chatroom_id) " +
+                    "WHERE cr.member_low_id IS NULL " +
+                    "AND EXISTS (SELECT 1 FROM chat_room_members m WHERE m.chatroom_id = cr.chatroom_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int updated = jdbcTemplate.update(BACKFILL);
+        log.info("[ChatRoomParticipantsBackfill] {} chat rooms updated", updated);
+    }
+}
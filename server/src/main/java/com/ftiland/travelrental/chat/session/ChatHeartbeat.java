@@ -0,0 +1,186 @@
+package com.ftiland.travelrental.chat.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 하트비트와 유휴 세션 정리
+// 세션마다 타이머 휠에 항목을 하나만 두고, 메시지/pong을 받으면 마지막 수신 시각만 갱신한다.
+// 항목이 만료되면 그때 유휴 시간을 보고
+// - idle-timeout을 넘었으면 연결을 끊고 정리한다. (반쯤 끊긴 TCP 연결은 close 이벤트가 오지 않는다)
+// - ping-interval을 넘었으면 ping을 보낸다.
+// - 아니면 마지막 수신 시각 기준으로 다시 등록한다.
+@Slf4j
+@Component
+public class ChatHeartbeat {
+
+    private final ChatOutboundSessions chatOutboundSessions;
+    private final long pingIntervalMillis;
+    private final long idleTimeoutMillis;
+    private final long tickMillis;
+    private final TimerWheel<Heartbeat> wheel;
+    private final ConcurrentMap<String, Heartbeat> heartbeats = new ConcurrentHashMap<>();
+    // ping 전송과 연결 종료는 블로킹될 수 있으므로 휠 스레드에서 직접 하지 않는다.
+    private final ExecutorService sender;
+    private final Counter pingCounter;
+    private final Counter reapedCounter;
+
+    private final long startMillis = System.currentTimeMillis();
+    private volatile long currentTick;
+    private volatile boolean running;
+    private Thread ticker;
+
+    public ChatHeartbeat(ChatOutboundSessions chatOutboundSessions,
+                         MeterRegistry meterRegistry,
+                         @Value("${chat.heartbeat.ping-interval-ms:25000}") long pingIntervalMillis,
+                         @Value("${chat.heartbeat.idle-timeout-ms:60000}") long idleTimeoutMillis,
+                         @Value("${chat.heartbeat.tick-ms:1000}") long tickMillis,
+                         @Value("${chat.heartbeat.wheel-size:512}") int wheelSize,
+                         @Value("${chat.heartbeat.sender-threads:2}") int senderThreads) {
+        this.chatOutboundSessions = chatOutboundSessions;
+        this.pingIntervalMillis = pingIntervalMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimerWheel<>(wheelSize);
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "chat-heartbeat-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pingCounter = meterRegistry.counter("chat.heartbeat.pings");
+        this.reapedCounter = meterRegistry.counter("chat.sessions.reaped");
+        Gauge.builder("chat.heartbeat.sessions", heartbeats, ConcurrentMap::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    private void start() {
+        running = true;
+        ticker = new Thread(this::tickLoop, "chat-heartbeat-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    // onReap: 유휴 연결을 끊은 뒤 실행할 정리 작업
+    public void register(WebSocketSession session, Runnable onReap) {
+        Heartbeat heartbeat = new Heartbeat(session.getId(), onReap);
+        schedule(heartbeat, heartbeat.lastSeen + pingIntervalMillis);
+        heartbeats.put(session.getId(), heartbeat);
+    }
+
+    public void touch(String sessionId) {
+        Heartbeat heartbeat = heartbeats.get(sessionId);
+        if (heartbeat != null) {
+            heartbeat.lastSeen = System.currentTimeMillis();
+        }
+    }
+
+    public void remove(String sessionId) {
+        Heartbeat heartbeat = heartbeats.remove(sessionId);
+        if (heartbeat != null) {
+            heartbeat.timeout.cancel();
+        }
+    }
+
+    private void schedule(Heartbeat heartbeat, long deadlineMillis) {
+        // 이미 지난 tick 슬롯에 들어가 한 바퀴를 더 기다리지 않도록 최소 다음 tick으로 잡는다.
+        long deadlineTick = Math.max(currentTick + 1, (deadlineMillis - startMillis + tickMillis - 1) / tickMillis);
+        heartbeat.timeout = wheel.schedule(heartbeat, deadlineTick);
+    }
+
+    private void tickLoop() {
+        long tick = currentTick;
+        while (running) {
+            long sleepMillis = startMillis + (tick + 1) * tickMillis - System.currentTimeMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            tick++;
+            currentTick = tick;
+            try {
+                wheel.expire(tick, this::expired);
+            } catch (RuntimeException e) {
+                log.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void expired(Heartbeat heartbeat) {
+        if (heartbeats.get(heartbeat.sessionId) != heartbeat) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long idle = now - heartbeat.lastSeen;
+
+        if (idle >= idleTimeoutMillis) {
+            heartbeats.remove(heartbeat.sessionId, heartbeat);
+            reapedCounter.increment();
+            log.info("[ChatHeartbeat] reap idle session : {} ({} ms)", heartbeat.sessionId, idle);
+            sender.execute(() -> reap(heartbeat));
+        } else if (idle >= pingIntervalMillis) {
+            sender.execute(() -> ping(heartbeat));
+            schedule(heartbeat, now + Math.min(pingIntervalMillis, idleTimeoutMillis - idle));
+        } else {
+            schedule(heartbeat, heartbeat.lastSeen + pingIntervalMillis);
+        }
+    }
+
+    private void ping(Heartbeat heartbeat) {
+        WebSocketSession session = chatOutboundSessions.get(heartbeat.sessionId);
+        if (session != null && session.isOpen()) {
+            chatOutboundSessions.send(session, new PingMessage());
+            pingCounter.increment();
+        }
+    }
+
+    private void reap(Heartbeat heartbeat) {
+        WebSocketSession session = chatOutboundSessions.get(heartbeat.sessionId);
+        if (session != null) {
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException | RuntimeException e) {
+                log.debug("[ChatHeartbeat] close failed : {}", e.getMessage());
+            }
+        }
+        // 반쯤 끊긴 연결은 close 이벤트가 오지 않을 수 있으므로 직접 정리한다.
+        heartbeat.onReap.run();
+    }
+
+    @PreDestroy
+    private void stop() {
+        running = false;
+        ticker.interrupt();
+        sender.shutdownNow();
+    }
+
+    private static final class Heartbeat {
+        private final String sessionId;
+        private final Runnable onReap;
+        private volatile long lastSeen = System.currentTimeMillis();
+        private volatile TimerWheel.Timeout<Heartbeat> timeout;
+
+        private Heartbeat(String sessionId, Runnable onReap) {
+            this.sessionId = sessionId;
+            this.onReap = onReap;
+        }
+    }
+}
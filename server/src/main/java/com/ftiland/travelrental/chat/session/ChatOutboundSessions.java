@@ -0,0 +1,117 @@
+package com.ftiland.travelrental.chat.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 세션마다 전송 버퍼 크기와 전송 시간을 제한하는 ConcurrentWebSocketSessionDecorator를 씌운다.
+// 여러 스레드가 같은 세션에 동시에 보내도 안전하고, 느린 클라이언트는 한도를 넘으면 연결을 끊는다.
+@Slf4j
+@Component
+public class ChatOutboundSessions {
+
+    // Tomcat이 블로킹 전송을 기다리는 최대 시간 (ms)
+    private static final String TOMCAT_BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final ConcurrentMap<String, ConcurrentWebSocketSessionDecorator> sessions = new ConcurrentHashMap<>();
+    private final int sendTimeLimitMillis;
+    private final int bufferSizeLimitBytes;
+    private final Counter sentCounter;
+    private final Counter droppedCounter;
+
+    public ChatOutboundSessions(MeterRegistry meterRegistry,
+                                @Value("${chat.outbound.send-time-limit-ms:5000}") int sendTimeLimitMillis,
+                                @Value("${chat.outbound.buffer-size-limit-bytes:524288}") int bufferSizeLimitBytes) {
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.bufferSizeLimitBytes = bufferSizeLimitBytes;
+        this.sentCounter = meterRegistry.counter("chat.outbound.sent");
+        this.droppedCounter = meterRegistry.counter("chat.outbound.dropped");
+        Gauge.builder("chat.outbound.sessions", sessions, ConcurrentMap::size)
+                .register(meterRegistry);
+        Gauge.builder("chat.outbound.buffered.bytes", sessions, ChatOutboundSessions::bufferedBytes)
+                .description("전송 대기 중인 메시지 크기의 합")
+                .register(meterRegistry);
+        Gauge.builder("chat.outbound.buffered.max.bytes", sessions, ChatOutboundSessions::maxBufferedBytes)
+                .description("가장 많이 밀린 세션의 전송 대기 크기")
+                .register(meterRegistry);
+    }
+
+    public WebSocketSession register(WebSocketSession session) {
+        limitBlockingSend(session);
+        ConcurrentWebSocketSessionDecorator decorator = new ConcurrentWebSocketSessionDecorator(session,
+                sendTimeLimitMillis, bufferSizeLimitBytes, ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        sessions.put(session.getId(), decorator);
+        return decorator;
+    }
+
+    public WebSocketSession get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public WebSocketSession remove(String sessionId) {
+        return sessions.remove(sessionId);
+    }
+
+    public void send(WebSocketSession session, WebSocketMessage<?> message) {
+        try {
+            session.sendMessage(message);
+            sentCounter.increment();
+        } catch (SessionLimitExceededException e) {
+            // 데코레이터가 이미 SESSION_NOT_RELIABLE로 연결을 닫았다.
+            droppedCounter.increment();
+            log.warn("[ChatOutboundSessions] slow consumer disconnected : {} ({})", session.getId(), e.getMessage());
+        } catch (IOException e) {
+            droppedCounter.increment();
+            log.error(e.getMessage(), e);
+            closeQuietly(session);
+        }
+    }
+
+    // 한 클라이언트의 블로킹 전송이 브로드캐스트 스레드를 오래 붙잡지 않도록 Tomcat 전송 대기 시간도 맞춰준다.
+    private void limitBlockingSend(WebSocketSession session) {
+        if (!(session instanceof NativeWebSocketSession)) {
+            return;
+        }
+        Session nativeSession = ((NativeWebSocketSession) session).getNativeSession(Session.class);
+        if (nativeSession != null) {
+            nativeSession.getUserProperties().put(TOMCAT_BLOCKING_SEND_TIMEOUT, (long) sendTimeLimitMillis);
+        }
+    }
+
+    private void closeQuietly(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static double bufferedBytes(ConcurrentMap<String, ConcurrentWebSocketSessionDecorator> sessions) {
+        long total = 0;
+        for (ConcurrentWebSocketSessionDecorator session : sessions.values()) {
+            total += session.getBufferSize();
+        }
+        return total;
+    }
+
+    private static double maxBufferedBytes(ConcurrentMap<String, ConcurrentWebSocketSessionDecorator> sessions) {
+        long max = 0;
+        for (ConcurrentWebSocketSessionDecorator session : sessions.values()) {
+            max = Math.max(max, session.getBufferSize());
+        }
+        return max;
+    }
+}
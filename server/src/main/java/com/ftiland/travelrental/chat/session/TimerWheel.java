@@ -0,0 +1,64 @@
+package com.ftiland.travelrental.chat.session;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+// 해시 타이머 휠
+// 만료 tick을 슬롯 수로 나눈 나머지 슬롯에 넣고, tick마다 해당 슬롯만 확인한다.
+// 등록/취소는 O(1)이고 tick당 비용은 그 슬롯에 있는 항목 수에 비례한다.
+// 취소된 항목은 슬롯을 확인할 때 함께 지운다.
+public class TimerWheel<T> {
+
+    private final Queue<Timeout<T>>[] slots;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int wheelSize) {
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheel size must be a power of two : " + wheelSize);
+        }
+        this.slots = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = wheelSize - 1;
+    }
+
+    // 여러 스레드에서 호출해도 된다.
+    public Timeout<T> schedule(T value, long deadlineTick) {
+        Timeout<T> timeout = new Timeout<>(value, deadlineTick);
+        slots[(int) (deadlineTick & mask)].add(timeout);
+        return timeout;
+    }
+
+    // tick은 한 스레드에서 1씩 증가시키며 호출한다. 휠을 한 바퀴 이상 남은 항목은 그대로 둔다.
+    public void expire(long tick, Consumer<T> action) {
+        Iterator<Timeout<T>> iterator = slots[(int) (tick & mask)].iterator();
+        while (iterator.hasNext()) {
+            Timeout<T> timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.deadlineTick <= tick) {
+                iterator.remove();
+                action.accept(timeout.value);
+            }
+        }
+    }
+
+    public static final class Timeout<T> {
+        private final T value;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ftiland.travelrental.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class CursorInfo {
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,43 @@
+package com.ftiland.travelrental.common;
+
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import static com.ftiland.travelrental.common.exception.ExceptionCode.INVALID_CURSOR;
+
+// (정렬시각, id) 쌍을 클라이언트에 넘겨주는 불투명 커서
+// offset 대신 마지막으로 읽은 행 다음부터 인덱스를 타고 읽기 위해 사용한다.
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String DELIMITER = "|";
+
+    private LocalDateTime createdAt;
+    private String id;
+
+    public String encode() {
+        String raw = createdAt.toString() + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(DELIMITER);
+            if (idx < 0) {
+                throw new BusinessLogicException(INVALID_CURSOR);
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, idx)), raw.substring(idx + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessLogicException(INVALID_CURSOR);
+        }
+    }
+}
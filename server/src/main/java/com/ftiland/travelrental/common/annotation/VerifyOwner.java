@@ -0,0 +1,17 @@
+package com.ftiland.travelrental.common.annotation;
+
+import com.ftiland.travelrental.common.ownership.Ownership;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 핸들러 실행 전에 로그인한 회원이 경로의 상품/예약 소유자인지 OwnershipInterceptor가 확인한다.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface VerifyOwner {
+
+  Ownership value();
+
+}
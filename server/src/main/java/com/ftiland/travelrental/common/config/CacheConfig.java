@@ -4,8 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -27,6 +29,7 @@ public class CacheConfig {
     private int cachePort;
 
     @Bean
+    @Profile("!loadtest")
     public CacheManager redisCacheManager(@Qualifier("redisCacheConnectionFactory") RedisConnectionFactory redisCacheConnectionFactory) {
         RedisCacheConfiguration conf = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(
@@ -37,9 +40,18 @@ public class CacheConfig {
 
         return RedisCacheManager.RedisCacheManagerBuilder.fromConnectionFactory(redisCacheConnectionFactory)
                 .cacheDefaults(conf)
+                // 트랜잭션 안에서의 evict는 커밋 후에 반영해 커밋 전 값이 다시 캐시되지 않게 한다.
+                .transactionAware()
                 .build();
     }
 
+    // 부하 테스트 프로필은 redis 없이 로컬 메모리 캐시로 띄운다.
+    @Bean
+    @Profile("loadtest")
+    public CacheManager localCacheManager() {
+        return new ConcurrentMapCacheManager();
+    }
+
     @Bean
     public RedisConnectionFactory redisCacheConnectionFactory() {
         return new LettuceConnectionFactory(new RedisStandaloneConfiguration(cacheHost, cachePort));
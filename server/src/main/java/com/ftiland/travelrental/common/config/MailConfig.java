@@ -20,6 +20,18 @@ public class MailConfig {
     private String username;
     @Value("${spring.mail.smtp.password}")
     private String password;
+    // 로컬 SMTP(GreenMail 등)로 테스트할 때 인증/TLS를 끌 수 있도록 설정으로 뺀다.
+    @Value("${spring.mail.smtp.auth:true}")
+    private boolean auth;
+    @Value("${spring.mail.smtp.starttls.enable:true}")
+    private boolean starttls;
+    // 기본값은 무한 대기라 SMTP 서버가 멈추면 발송 스레드도 멈춘다.
+    @Value("${spring.mail.smtp.connection-timeout-ms:5000}")
+    private int connectionTimeout;
+    @Value("${spring.mail.smtp.timeout-ms:10000}")
+    private int timeout;
+    @Value("${spring.mail.smtp.write-timeout-ms:10000}")
+    private int writeTimeout;
 
     @Bean
     public JavaMailSender mailSender() {
@@ -31,10 +43,13 @@ public class MailConfig {
 
         javaMailSender.setPort(port);
         Properties prop = new Properties();
-        prop.put("mail.smtp.auth", "true");
+        prop.put("mail.smtp.auth", String.valueOf(auth));
         prop.put("mail.smtp.debug", "true");
-        prop.put("mail.smtp.starttls.enable", "true");
+        prop.put("mail.smtp.starttls.enable", String.valueOf(starttls));
         prop.put("mail.smtp.EnableSSL.enable", "true");
+        prop.put("mail.smtp.connectiontimeout", String.valueOf(connectionTimeout));
+        prop.put("mail.smtp.timeout", String.valueOf(timeout));
+        prop.put("mail.smtp.writetimeout", String.valueOf(writeTimeout));
         javaMailSender.setJavaMailProperties(prop);
         return javaMailSender;
     }
@@ -2,6 +2,7 @@ package com.ftiland.travelrental.common.config;
 
 import com.ftiland.travelrental.common.resolver.CurrentMemberResolver;
 import com.ftiland.travelrental.oauth.auth.interceptor.MemberIdInterceptor;
+import com.ftiland.travelrental.oauth.auth.interceptor.OwnershipInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
@@ -15,11 +16,14 @@ import java.util.List;
 public class WebConfig implements WebMvcConfigurer {
 
     private final MemberIdInterceptor memberIdInterceptor;
+    private final OwnershipInterceptor ownershipInterceptor;
     private final CurrentMemberResolver currentMemberResolver;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(memberIdInterceptor);
+        // memberId를 쓰므로 MemberIdInterceptor 다음에 등록한다.
+        registry.addInterceptor(ownershipInterceptor);
     }
 
     @Override
@@ -21,11 +21,18 @@ public enum ExceptionCode {
     NOT_FOUND_RESERVATION(404, "예약이 존재하지 않습니다."),
     CATEGORY_NOT_FOUND(404, "존재하지 않는 카테고리입니다."),
     NOT_POSSIBLE_CANCEL(400, "예약취소 불가"),
+    NOT_POSSIBLE_ACCEPT(400, "예약승인 불가"),
+    LOCK_TIMEOUT(409, "요청이 많아 처리하지 못했습니다. 다시 시도해주세요."),
     NOT_FOUND_IMAGE_MEMBER(404, "멤버 이미지가 존재하지 않습니다."),
     RESERVATION_NOT_ALLOWED(400, "자신의 상품에 예약요청을 할 수 없습니다."),
     WRONG_RESERVATION(400, "예약 날짜가 잘못되었습니다."),
     WRONG_MINIMUM_PERIOD(400, "예약 기간이 최소 기간보다 짧습니다."),
-    EXIST_RESERVATION(400, "해당 기간에 예약이 존재합니다.");
+    EXIST_RESERVATION(400, "해당 기간에 예약이 존재합니다."),
+    INVALID_CURSOR(400, "잘못된 커서입니다."),
+    ALREADY_RATED(409, "이미 평가한 예약입니다."),
+    INVALID_REFRESH_TOKEN(401, "유효하지 않은 refresh token입니다."),
+    REFRESH_TOKEN_REUSED(401, "이미 사용된 refresh token입니다."),
+    CHAT_UNAVAILABLE(503, "메시지를 저장하지 못했습니다. 잠시 후 다시 시도해주세요.");
 
     @Getter
     private int status;
@@ -0,0 +1,69 @@
+package com.ftiland.travelrental.common.lock;
+
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static com.ftiland.travelrental.common.exception.ExceptionCode.LOCK_TIMEOUT;
+
+// key의 해시로 고정 개수의 락 중 하나를 골라 쓰는 striped lock
+// 키마다 락 객체를 만들지 않아서 메모리가 늘어나지 않고, 서로 다른 키는 대부분 다른 락을 쓴다.
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutMillis;
+
+    public StripedLock(int stripeCount, long timeoutMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> T executeWithLock(Object key, Supplier<T> supplier) {
+        ReentrantLock lock = acquire(key);
+        try {
+            return supplier.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // checked exception을 던지는 작업용
+    public <T> T callWithLock(Object key, Callable<T> callable) throws Exception {
+        ReentrantLock lock = acquire(key);
+        try {
+            return callable.call();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock acquire(Object key) {
+        ReentrantLock lock = stripeFor(key);
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException(LOCK_TIMEOUT);
+        }
+        if (!acquired) {
+            throw new BusinessLogicException(LOCK_TIMEOUT);
+        }
+        return lock;
+    }
+
+    private ReentrantLock stripeFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+}
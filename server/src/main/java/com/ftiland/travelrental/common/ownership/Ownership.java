@@ -0,0 +1,11 @@
+package com.ftiland.travelrental.common.ownership;
+
+// 경로 변수 product-id, reservation-id 기준으로 확인한다.
+public enum Ownership {
+    // 상품 등록자
+    PRODUCT,
+    // 예약 요청자
+    RESERVATION,
+    // 예약된 상품의 등록자 (예약이 경로의 상품에 속해야 한다)
+    LENT_RESERVATION
+}
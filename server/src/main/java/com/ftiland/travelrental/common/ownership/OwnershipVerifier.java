@@ -0,0 +1,49 @@
+package com.ftiland.travelrental.common.ownership;
+
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+import com.ftiland.travelrental.product.repository.ProductRepository;
+import com.ftiland.travelrental.reservation.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import static com.ftiland.travelrental.common.exception.ExceptionCode.*;
+
+// 엔티티를 불러오지 않고 exists 쿼리 한 번으로 소유자를 확인한다.
+// 실패한 경우에만 원인(없음/권한 없음)을 구분하기 위해 한 번 더 조회한다.
+@Component
+@RequiredArgsConstructor
+public class OwnershipVerifier {
+
+    private final ProductRepository productRepository;
+    private final ReservationRepository reservationRepository;
+
+    public void verifyProductOwner(String productId, Long memberId) {
+        if (productRepository.existsByProductIdAndMemberMemberId(productId, memberId)) {
+            return;
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new BusinessLogicException(PRODUCT_NOT_FOUND);
+        }
+        throw new BusinessLogicException(UNAUTHORIZED);
+    }
+
+    public void verifyBorrower(String reservationId, Long memberId) {
+        if (reservationRepository.existsByReservationIdAndMemberMemberId(reservationId, memberId)) {
+            return;
+        }
+        if (!reservationRepository.existsById(reservationId)) {
+            throw new BusinessLogicException(NOT_FOUND_RESERVATION);
+        }
+        throw new BusinessLogicException(UNAUTHORIZED);
+    }
+
+    public void verifyLender(String reservationId, String productId, Long memberId) {
+        if (reservationRepository.existsLentReservation(reservationId, productId, memberId)) {
+            return;
+        }
+        if (!reservationRepository.existsById(reservationId)) {
+            throw new BusinessLogicException(NOT_FOUND_RESERVATION);
+        }
+        throw new BusinessLogicException(UNAUTHORIZED);
+    }
+}
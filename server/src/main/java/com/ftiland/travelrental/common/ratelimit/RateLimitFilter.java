@@ -0,0 +1,80 @@
+package com.ftiland.travelrental.common.ratelimit;
+
+import com.ftiland.travelrental.common.utils.MemberAuthUtils;
+import com.ftiland.travelrental.oauth.utils.ErrorResponder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// JwtVerificationFilter 다음에 두어 @CurrentMember와 같은 회원 id(SecurityContext)로 센다.
+// 제한을 넘으면 컨트롤러까지 가지 않고 429와 Retry-After(초)를 돌려준다.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RateLimitProperties.Route route = findRoute(request);
+        if (route != null) {
+            long retryAfterMillis = rateLimiter.tryAcquire(route.getName() + ":" + resolveClient(route, request), route);
+            if (retryAfterMillis > 0) {
+                meterRegistry.counter("ratelimit.rejected", "route", route.getName()).increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(retryAfterMillis)));
+                ErrorResponder.sendErrorResponse(response, HttpStatus.TOO_MANY_REQUESTS);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || properties.getRoutes().isEmpty();
+    }
+
+    private RateLimitProperties.Route findRoute(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getMethod() != null && !route.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (pathMatcher.match(route.getPattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String resolveClient(RateLimitProperties.Route route, HttpServletRequest request) {
+        if (route.getPer() == RateLimitProperties.Per.MEMBER) {
+            Long memberId = MemberAuthUtils.extractMemberIdFromAuthentication(SecurityContextHolder.getContext().getAuthentication());
+            if (memberId != null) {
+                return "m" + memberId;
+            }
+        }
+        // 프록시 뒤라면 server.forward-headers-strategy로 원래 IP가 들어오게 한다.
+        return "ip" + request.getRemoteAddr();
+    }
+
+    public static long retryAfterSeconds(long retryAfterMillis) {
+        return Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+}
@@ -0,0 +1,62 @@
+package com.ftiland.travelrental.common.ratelimit;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 경로별 제한은 목록으로 받아야 해서 @Value 대신 바인딩한다.
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // 위에서부터 처음 일치하는 경로 하나만 적용한다.
+    private List<Route> routes = new ArrayList<>();
+    private Websocket websocket = new Websocket();
+
+    public enum Per {
+        // 로그인한 회원 id, 비로그인이면 IP
+        MEMBER,
+        IP
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Limit {
+        private int capacity;
+        private double refillPerSecond;
+
+        public Limit(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Route extends Limit {
+        private String name;
+        // 비어 있으면 모든 메서드
+        private String method;
+        // AntPathMatcher 패턴
+        private String pattern;
+        private Per per = Per.MEMBER;
+    }
+
+    @Getter
+    @Setter
+    public static class Websocket {
+        // IP별 핸드셰이크
+        private Limit handshake = new Limit(10, 0.5);
+        // 세션별 수신 프레임
+        private Limit frame = new Limit(20, 10);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ftiland.travelrental.common.ratelimit;
+
+// key는 경로 이름과 회원 id/IP를 합친 값이고, 같은 key에는 항상 같은 limit이 들어온다.
+public interface RateLimiter {
+
+    // 허용되면 0, 아니면 다시 시도할 수 있을 때까지의 밀리초
+    long tryAcquire(String key, RateLimitProperties.Limit limit);
+}
@@ -0,0 +1,47 @@
+package com.ftiland.travelrental.common.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 여러 인스턴스가 같은 버킷을 쓴다. TokenBucket과 같은 계산을 Lua 안에서 redis 서버 시각(마이크로초)으로 한다.
+// 키에는 버킷이 가득 차는 시각만 저장하고 그 시각이 지나면 만료된다.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "redis")
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "redis.replicate_commands() " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+            "local interval = tonumber(ARGV[1]) " +
+            "local burst = tonumber(ARGV[2]) " +
+            "local fullAt = tonumber(redis.call('GET', KEYS[1]) or now) " +
+            "if fullAt < now then fullAt = now end " +
+            "local nextFullAt = fullAt + interval " +
+            "local wait = nextFullAt - now - burst " +
+            "if wait > 0 then return wait end " +
+            "redis.call('SET', KEYS[1], nextFullAt, 'PX', math.ceil((nextFullAt - now) / 1000)) " +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long microsPerToken = (long) (1_000_000L / limit.getRefillPerSecond());
+        Long waitMicros = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + key),
+                String.valueOf(microsPerToken), String.valueOf(microsPerToken * limit.getCapacity()));
+        if (waitMicros == null || waitMicros <= 0) {
+            return 0;
+        }
+        return Math.max(1, waitMicros / 1000);
+    }
+}
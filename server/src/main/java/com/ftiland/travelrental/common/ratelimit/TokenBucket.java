@@ -0,0 +1,44 @@
+package com.ftiland.travelrental.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 락 없는 토큰 버킷.
+// 남은 토큰 수와 마지막 충전 시각을 따로 두지 않고 "버킷이 다시 가득 차는 시각" 하나만 AtomicLong에 두고 CAS로 갱신한다. (GCRA)
+// 토큰 하나를 쓰면 그 시각이 nanosPerToken만큼 뒤로 밀리고, 지금보다 capacity개 분량 이상 밀려야 하면 거절한다.
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.nanosPerToken = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = capacity * nanosPerToken;
+    }
+
+    public TokenBucket(RateLimitProperties.Limit limit) {
+        this(limit.getCapacity(), limit.getRefillPerSecond());
+    }
+
+    // 허용되면 0, 아니면 토큰 하나가 찰 때까지 남은 나노초
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() <= nowNanos;
+    }
+}
@@ -1,10 +1,13 @@
 package com.ftiland.travelrental.common.utils.mail;
 
+import com.ftiland.travelrental.notification.entity.NotificationOutbox;
 import lombok.RequiredArgsConstructor;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class MailService {
@@ -13,6 +16,7 @@ public class MailService {
 
     private final String subject = "[PlayPack] %s님의 예약요청";
     private final String text = "%s님께서 고객님의 [%s] 상품에 대여예약요청하셨습니다.";
+    private final String digestSubject = "[PlayPack] 새로운 예약요청 %d건";
 
     public void sendMail(String to, String memberName, String productTitle) {
         SimpleMailMessage message = new SimpleMailMessage();
@@ -21,4 +25,29 @@ public class MailService {
         message.setText(String.format(text, memberName, productTitle));
         mailSender.send(message);
     }
+
+    public SimpleMailMessage createReservationDigest(String to, List<NotificationOutbox> outboxes) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+
+        if (outboxes.size() == 1) {
+            NotificationOutbox outbox = outboxes.get(0);
+            message.setSubject(String.format(subject, outbox.getMemberName()));
+            message.setText(String.format(text, outbox.getMemberName(), outbox.getProductTitle()));
+            return message;
+        }
+
+        StringBuilder body = new StringBuilder();
+        for (NotificationOutbox outbox : outboxes) {
+            body.append(String.format(text, outbox.getMemberName(), outbox.getProductTitle())).append('\n');
+        }
+        message.setSubject(String.format(digestSubject, outboxes.size()));
+        message.setText(body.toString());
+        return message;
+    }
+
+    // 여러 메시지를 한 번에 넘기면 하나의 SMTP 연결로 모두 보낸다.
+    public void sendAll(List<SimpleMailMessage> messages) {
+        mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+    }
 }
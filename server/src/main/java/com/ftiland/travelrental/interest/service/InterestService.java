@@ -63,7 +63,7 @@ public class InterestService {
         Pageable pageable = PageRequest.of(page,size);
 
         // 맴버 존재하는지 검사
-        memberService.findMember(memberId);
+        memberService.findMemberSummary(memberId);
         long start = System.currentTimeMillis();
         Page<Interest> pagedList = interestRepository.findByMemberId(memberId, pageable);
         long end = System.currentTimeMillis();
@@ -81,7 +81,7 @@ public class InterestService {
     public InterestDto.Responses2Dto  findInterest(Long memberId){
 
         // 맴버 존재하는지 검사
-        memberService.findMember(memberId);
+        memberService.findMemberSummary(memberId);
         ArrayList<Interest> interestList = interestRepository.findByMemberId2(memberId);
         InterestDto.Responses2Dto responses = interestMapper.interestsToResponses2Dto(interestList);
 
@@ -93,7 +93,9 @@ public class InterestService {
 
         // 이미 관심 목록에 등록했으면 에러 리턴
         if (findVerifiedInterest(memberId,productId).isPresent()){throw new BusinessLogicException(ExceptionCode.INTEREST_EXISTS);}
-        Member member = memberService.findMember(memberId);
+        // 존재 확인은 캐시로 하고 FK에는 프록시를 쓴다.
+        memberService.findMemberSummary(memberId);
+        Member member = memberService.getReference(memberId);
         Product product = productService.findProduct(productId);
         Interest interest = Interest.builder().interestId(UUID.randomUUID().toString()).member(member).product(product).build();
 
@@ -0,0 +1,65 @@
+package com.ftiland.travelrental.loadtest;
+
+import com.ftiland.travelrental.member.entity.Member;
+import com.ftiland.travelrental.member.repository.MemberRepository;
+import com.ftiland.travelrental.product.entity.Product;
+import com.ftiland.travelrental.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// loadtest 프로필에서 부하 테스트용 회원과 상품을 만든다.
+// k번째 방은 구매자 2k+1번 회원, 판매자 2k+2번 회원, 상품 loadtest-product-k로 만들어진다. (server/loadtest의 ChatLoadTest와 같은 규칙)
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestDataSeeder {
+
+    public static final String PRODUCT_PREFIX = "loadtest-product-";
+
+    private final MemberRepository memberRepository;
+    private final ProductRepository productRepository;
+
+    @Value("${loadtest.rooms:1000}")
+    private int rooms;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<Member> members = new ArrayList<>(rooms * 2);
+        for (int i = 1; i <= rooms * 2; i++) {
+            members.add(new Member("loadtest-" + i + "@loadtest.local", "loadtest-" + i));
+        }
+        members = memberRepository.saveAll(members);
+
+        List<Product> products = new ArrayList<>(rooms);
+        for (int k = 0; k < rooms; k++) {
+            products.add(Product.builder()
+                    .productId(PRODUCT_PREFIX + k)
+                    .title("loadtest")
+                    .content("loadtest")
+                    .baseFee(10000)
+                    .feePerDay(1000)
+                    .overdueFee(1000)
+                    .minimumRentalPeriod(1)
+                    .totalRateScore(0)
+                    .totalRateCount(0)
+                    .viewCount(0)
+                    .mainImage("")
+                    .latitude(37.5)
+                    .longitude(127.0)
+                    .address("loadtest")
+                    .member(members.get(k * 2 + 1))
+                    .build());
+        }
+        productRepository.saveAll(products);
+        log.info("[LoadTestDataSeeder] {} members, {} products", members.size(), products.size());
+    }
+}
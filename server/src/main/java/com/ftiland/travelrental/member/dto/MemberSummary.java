@@ -0,0 +1,21 @@
+package com.ftiland.travelrental.member.dto;
+
+import com.ftiland.travelrental.member.entity.Member;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 토큰 claims처럼 회원의 식별 정보만 필요할 때 쓰는 캐시용 요약
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberSummary {
+
+    private Long memberId;
+    private String email;
+    private String displayName;
+
+    public static MemberSummary from(Member member) {
+        return new MemberSummary(member.getMemberId(), member.getEmail(), member.getDisplayName());
+    }
+}
@@ -13,6 +13,8 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Entity
 @Builder
+// 로그인, 토큰 재발급 시 이메일로 조회한다.
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_member_email", columnNames = "email"))
 public class Member extends BaseEntity {
 
     @Id // 멤버의 경우 숫자형식의 id 사용
@@ -0,0 +1,14 @@
+package com.ftiland.travelrental.member.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 회원 이름/프로필 이미지가 바뀌었을 때 발행한다.
+// 회원 정보를 비정규화해 들고 있는 다른 모듈(채팅 inbox 등)이 받아서 갱신한다.
+@Getter
+@AllArgsConstructor
+public class MemberProfileUpdatedEvent {
+    private final Long memberId;
+    private final String displayName;
+    private final String imageUrl;
+}
@@ -7,14 +7,20 @@ import com.ftiland.travelrental.image.repository.ImageMemberRepository;
 import com.ftiland.travelrental.image.service.ImageService;
 import com.ftiland.travelrental.member.dto.MemberDto;
 import com.ftiland.travelrental.member.dto.MemberPatchDto;
+import com.ftiland.travelrental.member.dto.MemberSummary;
 import com.ftiland.travelrental.member.entity.Member;
+import com.ftiland.travelrental.member.event.MemberProfileUpdatedEvent;
 import com.ftiland.travelrental.member.repository.MemberRepository;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Scope;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -26,18 +32,26 @@ import static com.ftiland.travelrental.common.exception.ExceptionCode.MEMBER_NOT
 @Service
 public class MemberService {
 
+    public static final String MEMBER_SUMMARY_CACHE = "memberSummary";
+    public static final String MEMBER_SUMMARY_BY_EMAIL_CACHE = "memberSummaryByEmail";
+
     @Value("${image.default.path}")
     private String defaultImageUrl;
 
     private final MemberRepository memberRepository;
     private final ImageMemberRepository imageMemberRepository;
     private final ImageService imageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Autowired
-    public MemberService(MemberRepository memberRepository, ImageService imageService, ImageMemberRepository imageMemberRepository) {
+    public MemberService(MemberRepository memberRepository, ImageService imageService, ImageMemberRepository imageMemberRepository,
+                         ApplicationEventPublisher eventPublisher, CacheManager cacheManager) {
         this.memberRepository = memberRepository;
         this.imageMemberRepository = imageMemberRepository;
         this.imageService = imageService;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
     }
 
     public void createMembers(List<Member> members) {
@@ -57,8 +71,7 @@ public class MemberService {
     }
 
     public boolean existsEmail(String email) {
-        Optional<Member> member = memberRepository.findByEmail(email);
-        return member.isPresent();
+        return memberRepository.existsByEmail(email);
     }
 
     public Member findMember(Long memberId) {
@@ -66,12 +79,30 @@ public class MemberService {
                 .orElseThrow(() -> new BusinessLogicException(MEMBER_NOT_FOUND));
     }
 
+    // 토큰 재발급, 회원 존재 확인처럼 id, 이메일, 이름만 필요한 곳에서 쓴다.
+    // 캐시는 프록시를 거쳐야 동작하므로 같은 클래스 안에서는 부르지 않는다.
+    @Cacheable(key = "#memberId", value = MEMBER_SUMMARY_CACHE)
+    public MemberSummary findMemberSummary(Long memberId) {
+        return MemberSummary.from(findMember(memberId));
+    }
+
+    @Cacheable(key = "#email", value = MEMBER_SUMMARY_BY_EMAIL_CACHE)
+    public MemberSummary findMemberSummaryByEmail(String email) {
+        return MemberSummary.from(findMemberByEmail(email));
+    }
+
+    // FK로만 쓸 때 SELECT 없이 프록시를 돌려준다. 존재 여부는 확인하지 않으므로 필요하면 findMemberSummary로 먼저 확인한다.
+    public Member getReference(Long memberId) {
+        return memberRepository.getReferenceById(memberId);
+    }
+
     public Member findMemberByEmail(String email) {
         return memberRepository.findByEmail(email)
                 .orElseThrow(() -> new BusinessLogicException(MEMBER_NOT_FOUND));
     }
 
 
+    @Transactional
     public MemberDto.Response updateMember(String displayName, MultipartFile imageFile, Long memberId) {
 
         Member member = memberRepository.findById(memberId)
@@ -85,6 +116,9 @@ public class MemberService {
                 .ifPresent(name -> member.setDisplayName(name));
         member.setImageUrl(imageUrl);
         memberRepository.save(member);
+        // 상대방 채팅방 목록 등 비정규화된 이름/이미지는 리스너가 갱신한다.
+        eventPublisher.publishEvent(new MemberProfileUpdatedEvent(memberId, member.getDisplayName(), imageUrl));
+        evictSummary(member);
         return MemberDto.Response.from(member, imageUrl);
     }
 
@@ -92,6 +126,15 @@ public class MemberService {
 
         Member member = findMember(memberId);
         memberRepository.deleteById(memberId);
+        evictSummary(member);
+    }
+
+    // 이메일 키는 파라미터로 들어오지 않아 @CacheEvict 대신 직접 지운다.
+    private void evictSummary(Member member) {
+        Optional.ofNullable(cacheManager.getCache(MEMBER_SUMMARY_CACHE))
+                .ifPresent(cache -> cache.evict(member.getMemberId()));
+        Optional.ofNullable(cacheManager.getCache(MEMBER_SUMMARY_BY_EMAIL_CACHE))
+                .ifPresent(cache -> cache.evict(member.getEmail()));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.ftiland.travelrental.notification.entity;
+
+import com.ftiland.travelrental.common.aduit.BaseEntity;
+import com.ftiland.travelrental.notification.status.NotificationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// 예약 트랜잭션과 같은 트랜잭션에서 저장되는 알림 outbox
+// 실제 메일 발송은 NotificationDispatcher가 요청 스레드 밖에서 처리한다.
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_notification_outbox_status_next", columnList = "status, next_attempt_at")
+})
+@Builder
+public class NotificationOutbox extends BaseEntity {
+
+    @Id
+    private String outboxId;
+
+    @Column(nullable = false)
+    private String recipient;
+    private String memberName;
+    private String productTitle;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // 발송하는 동안 다른 서버가 가져가지 않게 표시한다.
+    // 발송 중에 서버가 죽으면 lease가 끝난 뒤 다시 가져간다.
+    // 가져가는 것 자체를 한 번의 시도로 센다. 그래야 발송 중에 매번 죽는 알림도 최대 횟수에서 멈춘다.
+    public boolean markInProgress(int maxAttempts, long leaseMillis) {
+        if (attempts >= maxAttempts) {
+            this.status = NotificationStatus.FAILED;
+            return false;
+        }
+        this.attempts = attempts + 1;
+        this.status = NotificationStatus.IN_PROGRESS;
+        this.nextAttemptAt = LocalDateTime.now().plus(Duration.ofMillis(leaseMillis));
+        return true;
+    }
+
+    public void markSent() {
+        this.status = NotificationStatus.SENT;
+    }
+
+    // 지수 백오프로 다음 재시도 시각을 잡고, 최대 횟수를 넘으면 FAILED로 둔다.
+    // 시도 횟수는 markInProgress에서 이미 올렸다.
+    public void markRetry(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (attempts >= maxAttempts) {
+            this.status = NotificationStatus.FAILED;
+            return;
+        }
+        long delay = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempts - 1, 20));
+        this.status = NotificationStatus.PENDING;
+        this.nextAttemptAt = LocalDateTime.now().plus(Duration.ofMillis(delay));
+    }
+}
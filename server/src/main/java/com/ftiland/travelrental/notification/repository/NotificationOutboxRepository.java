@@ -0,0 +1,32 @@
+package com.ftiland.travelrental.notification.repository;
+
+import com.ftiland.travelrental.notification.entity.NotificationOutbox;
+import com.ftiland.travelrental.notification.status.NotificationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, String> {
+
+    // 여러 서버가 동시에 가져가지 않도록 SKIP LOCKED(lock.timeout = -2)로 잠근다.
+    // IN_PROGRESS는 nextAttemptAt이 lease 만료 시각이므로 만료된 것만 다시 가져간다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM NotificationOutbox n " +
+            "WHERE n.status IN :statuses AND n.nextAttemptAt <= :now " +
+            "ORDER BY n.nextAttemptAt ASC")
+    List<NotificationOutbox> findDispatchable(@Param("statuses") Collection<NotificationStatus> statuses,
+                                              @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+}
@@ -0,0 +1,90 @@
+package com.ftiland.travelrental.notification.service;
+
+import com.ftiland.travelrental.common.utils.mail.MailService;
+import com.ftiland.travelrental.notification.entity.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// outbox에 쌓인 예약 알림을 주기적으로 꺼내 수신자별 요약 메일 한 통으로 묶어서 보낸다.
+// 한 번의 send 호출로 보내기 때문에 JavaMailSenderImpl이 SMTP 연결 하나를 재사용한다.
+// 1. 보낼 알림을 IN_PROGRESS(lease)로 가져가는 트랜잭션을 먼저 커밋한다.
+// 2. 트랜잭션 밖에서 메일을 보낸다. (SMTP가 느려도 DB 연결과 행 잠금을 잡고 있지 않는다)
+// 3. 결과를 두 번째 짧은 트랜잭션으로 반영한다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private final NotificationService notificationService;
+    private final MailService mailService;
+
+    @Value("${notification.dispatch.batch-size:100}")
+    private int batchSize;
+    @Value("${notification.dispatch.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${notification.dispatch.backoff-base-ms:10000}")
+    private long backoffBaseMillis;
+    @Value("${notification.dispatch.backoff-max-ms:3600000}")
+    private long backoffMaxMillis;
+    // SMTP timeout을 모두 합친 것보다 길게 잡는다.
+    @Value("${notification.dispatch.lease-ms:600000}")
+    private long leaseMillis;
+
+    @Scheduled(fixedDelayString = "${notification.dispatch.interval-ms:5000}")
+    public void dispatch() {
+        List<NotificationOutbox> outboxes = notificationService.claimDispatchable(batchSize, maxAttempts, leaseMillis);
+        if (outboxes.isEmpty()) {
+            return;
+        }
+
+        // 같은 수신자에게 온 요청은 한 통으로 합친다.
+        Map<String, List<NotificationOutbox>> byRecipient = new LinkedHashMap<>();
+        for (NotificationOutbox outbox : outboxes) {
+            byRecipient.computeIfAbsent(outbox.getRecipient(), k -> new ArrayList<>()).add(outbox);
+        }
+
+        List<SimpleMailMessage> messages = new ArrayList<>(byRecipient.size());
+        Map<SimpleMailMessage, List<NotificationOutbox>> sources = new IdentityHashMap<>();
+        byRecipient.forEach((recipient, group) -> {
+            SimpleMailMessage message = mailService.createReservationDigest(recipient, group);
+            messages.add(message);
+            sources.put(message, group);
+        });
+
+        Set<NotificationOutbox> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            mailService.sendAll(messages);
+        } catch (MailSendException e) {
+            // 실패한 메시지만 재시도 대상으로 남긴다.
+            e.getFailedMessages().keySet().forEach(message -> {
+                List<NotificationOutbox> group = sources.get(message);
+                if (group != null) {
+                    failed.addAll(group);
+                }
+            });
+            if (failed.isEmpty()) {
+                failed.addAll(outboxes);
+            }
+            log.warn("[NotificationDispatcher] {} notifications failed : {}", failed.size(), e.getMessage());
+        } catch (MailException e) {
+            failed.addAll(outboxes);
+            log.warn("[NotificationDispatcher] mail server unavailable : {}", e.getMessage());
+        }
+
+        List<String> sentIds = new ArrayList<>(outboxes.size());
+        List<String> failedIds = new ArrayList<>(failed.size());
+        for (NotificationOutbox outbox : outboxes) {
+            (failed.contains(outbox) ? failedIds : sentIds).add(outbox.getOutboxId());
+        }
+        notificationService.recordResults(sentIds, failedIds, maxAttempts, backoffBaseMillis, backoffMaxMillis);
+        log.info("[NotificationDispatcher] dispatched {} notifications in {} mails", sentIds.size(), messages.size());
+    }
+}
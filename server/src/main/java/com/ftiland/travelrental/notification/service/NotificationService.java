@@ -0,0 +1,62 @@
+package com.ftiland.travelrental.notification.service;
+
+import com.ftiland.travelrental.notification.entity.NotificationOutbox;
+import com.ftiland.travelrental.notification.repository.NotificationOutboxRepository;
+import com.ftiland.travelrental.notification.status.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationService {
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+
+    // 호출한 쪽의 트랜잭션에 참여해서 예약과 함께 커밋/롤백된다.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueReservationRequest(String recipient, String memberName, String productTitle) {
+        NotificationOutbox outbox = NotificationOutbox.builder()
+                .outboxId(UUID.randomUUID().toString())
+                .recipient(recipient)
+                .memberName(memberName)
+                .productTitle(productTitle)
+                .status(NotificationStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now()).build();
+
+        notificationOutboxRepository.save(outbox);
+    }
+
+    // 보낼 알림을 IN_PROGRESS로 바꾸고 바로 커밋한다. 메일은 이 트랜잭션 밖에서 보낸다.
+    // 시도 횟수를 다 쓴 알림(발송 중 서버가 죽어 lease가 끝난 것)은 FAILED로 바꾸고 돌려주지 않는다.
+    @Transactional
+    public List<NotificationOutbox> claimDispatchable(int batchSize, int maxAttempts, long leaseMillis) {
+        List<NotificationOutbox> outboxes = notificationOutboxRepository.findDispatchable(
+                List.of(NotificationStatus.PENDING, NotificationStatus.IN_PROGRESS), LocalDateTime.now(), PageRequest.of(0, batchSize));
+        List<NotificationOutbox> claimed = new ArrayList<>(outboxes.size());
+        for (NotificationOutbox outbox : outboxes) {
+            if (outbox.markInProgress(maxAttempts, leaseMillis)) {
+                claimed.add(outbox);
+            }
+        }
+        return claimed;
+    }
+
+    // 발송 결과를 짧은 트랜잭션으로 반영한다.
+    @Transactional
+    public void recordResults(Collection<String> sentIds, Collection<String> failedIds,
+                              int maxAttempts, long backoffBaseMillis, long backoffMaxMillis) {
+        notificationOutboxRepository.findAllById(sentIds).forEach(NotificationOutbox::markSent);
+        notificationOutboxRepository.findAllById(failedIds)
+                .forEach(outbox -> outbox.markRetry(maxAttempts, backoffBaseMillis, backoffMaxMillis));
+    }
+}
@@ -0,0 +1,5 @@
+package com.ftiland.travelrental.notification.status;
+
+public enum NotificationStatus {
+    PENDING, IN_PROGRESS, SENT, FAILED
+}
@@ -1,8 +1,7 @@
 package com.ftiland.travelrental.oauth.auth.filter;
 
-import com.ftiland.travelrental.member.entity.Member;
-import com.ftiland.travelrental.member.service.MemberService;
 import com.ftiland.travelrental.oauth.jwt.JwtTokenizer;
+import com.ftiland.travelrental.oauth.jwt.RefreshTokenService;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
@@ -19,19 +18,17 @@ import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
 public class JwtVerificationFilter extends OncePerRequestFilter {
     private final JwtTokenizer jwtTokenizer;
-    private final MemberService memberService;
+    private final RefreshTokenService refreshTokenService;
     private static final Logger logger = LoggerFactory.getLogger(JwtVerificationFilter.class);
 
-    public JwtVerificationFilter(JwtTokenizer jwtTokenizer, MemberService memberService) {
+    public JwtVerificationFilter(JwtTokenizer jwtTokenizer, RefreshTokenService refreshTokenService) {
         this.jwtTokenizer = jwtTokenizer;
-        this.memberService = memberService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
@@ -60,9 +57,8 @@ public class JwtVerificationFilter extends OncePerRequestFilter {
     }
 
     private Map<String, Object> verifyJws(HttpServletRequest request) throws ServletException {
-        String jws = request.getHeader("Authorization").replace("Bearer", "");
-        String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
-        Map<String, Object> claims = jwtTokenizer.getClaims(jws, base64EncodedSecretKey).getBody();
+        String jws = request.getHeader("Authorization").replace("Bearer", "").trim();
+        Map<String, Object> claims = jwtTokenizer.getVerifiedClaims(jws);
         return claims;
     }
 
@@ -75,41 +71,18 @@ public class JwtVerificationFilter extends OncePerRequestFilter {
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
-    private String verifyRefreshToken(HttpServletRequest request) throws ServletException {
-        String refreshToken = getRefreshTokenFromCookie(request, "refreshToken");
-        String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
-        Map<String, Object> refreshTokenClaims = jwtTokenizer.getClaims(refreshToken, base64EncodedSecretKey).getBody();
-        String refreshTokenMemberEmail = (String) refreshTokenClaims.get("sub");
-        return refreshTokenMemberEmail;
-    }
-
     private void handleTokenExpiration(HttpServletRequest request, HttpServletResponse response) throws IOException {
-        String refreshToken = getRefreshTokenFromCookie(request, "refreshToken");
+        String refreshToken = getRefreshTokenFromCookie(request, RefreshTokenService.COOKIE_NAME);
 
         if (refreshToken != null) {
             try {
-                // Refresh token 유효성 검사
-                String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
-                Map<String, Object> refreshTokenClaims = jwtTokenizer.getClaims(refreshToken, base64EncodedSecretKey).getBody();
-                String refreshTokenMemberEmail = (String) refreshTokenClaims.get("sub");
-                if (refreshTokenMemberEmail != null) {
-                    // check member exist
-                    Member member = memberService.findMemberByEmail(refreshTokenMemberEmail);
-                    // Access token 재발급
-                    Map<String, Object> claims = new HashMap<>();
-                    claims.put("memberId", member.getMemberId());
-                    claims.put("displayName", member.getDisplayName());
-                    claims.put("email", member.getEmail());
-
-                    String subject = member.getEmail();
-                    Date expiration = jwtTokenizer.getTokenExpiration(jwtTokenizer.getAccessTokenExpirationMinutes());
-
-                    String accessToken = jwtTokenizer.generateAccessToken(claims, subject, expiration, base64EncodedSecretKey);
-
-                    response.setHeader("Authorization", "Bearer " + accessToken);
-                    response.setStatus(HttpServletResponse.SC_OK, "Access token refreshed successfully");
-                    return;
-                }
+                // Refresh token 검증 후 access token 재발급, refresh token은 새 토큰으로 회전
+                RefreshTokenService.Tokens tokens = refreshTokenService.refresh(refreshToken);
+
+                response.addCookie(refreshTokenService.createCookie(tokens.getRefreshToken()));
+                response.setHeader("Authorization", "Bearer " + tokens.getAccessToken());
+                response.setStatus(HttpServletResponse.SC_OK, "Access token refreshed successfully");
+                return;
             } catch (ExpiredJwtException e) {
 
             } catch (Exception e) {
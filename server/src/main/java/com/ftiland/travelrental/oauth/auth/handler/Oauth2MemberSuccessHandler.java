@@ -4,6 +4,8 @@ import com.ftiland.travelrental.member.entity.Member;
 import com.ftiland.travelrental.member.service.MemberService;
 import com.ftiland.travelrental.oauth.config.UrlConfig;
 import com.ftiland.travelrental.oauth.jwt.JwtTokenizer;
+import com.ftiland.travelrental.oauth.jwt.RefreshTokenService;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
@@ -11,7 +13,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -23,11 +24,14 @@ public class Oauth2MemberSuccessHandler extends SimpleUrlAuthenticationSuccessHa
     private final JwtTokenizer jwtTokenizer;
     private final MemberService memberService;
     private final UrlConfig urlConfig;
+    private final RefreshTokenService refreshTokenService;
 
-    public Oauth2MemberSuccessHandler(JwtTokenizer jwtTokenizer, MemberService memberService, UrlConfig urlConfig) {
+    public Oauth2MemberSuccessHandler(JwtTokenizer jwtTokenizer, MemberService memberService, UrlConfig urlConfig,
+                                      RefreshTokenService refreshTokenService) {
         this.jwtTokenizer = jwtTokenizer;
         this.memberService = memberService;
         this.urlConfig = urlConfig;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
@@ -42,33 +46,29 @@ public class Oauth2MemberSuccessHandler extends SimpleUrlAuthenticationSuccessHa
 
         Long memberId;
         if(!memberService.existsEmail(email)) {
-            Member savedMember = saveMember(email, displayName);
-            memberId = savedMember.getMemberId();
+            memberId = saveMember(email, displayName);
         } else {
-            Member findMember = memberService.findMemberByEmail(email);
-            memberId = findMember.getMemberId();
+            memberId = memberService.findMemberSummaryByEmail(email).getMemberId();
         }
 
         redirect(request, response, displayName, memberId, email);
     }
 
-    private Member saveMember(String email, String displayName) {
+    private Long saveMember(String email, String displayName) {
         Member member = new Member(email, displayName);
-        Member savedMember = memberService.createMember(member);
-
-        return savedMember;
+        try {
+            return memberService.createMember(member).getMemberId();
+        } catch (DataIntegrityViolationException e) {
+            // 같은 이메일로 동시에 처음 로그인하면 uk_member_email 때문에 한쪽만 저장된다.
+            return memberService.findMemberSummaryByEmail(email).getMemberId();
+        }
     }
 
     private void redirect(HttpServletRequest request, HttpServletResponse response, String displayName, Long memberId, String email) throws IOException {
         String accessToken = delegateAccessToken(displayName, memberId, email);
-        String refreshToken = delegateRefreshToken(email);
+        String refreshToken = refreshTokenService.issue(memberId, email);
 
-        Cookie refreshTokenCookie = new Cookie("refreshToken", refreshToken);
-        refreshTokenCookie.setSecure(false);
-        refreshTokenCookie.setHttpOnly(true);
-        refreshTokenCookie.setPath("/");
-        refreshTokenCookie.setMaxAge(30 * 24 * 60 * 60);
-        response.addCookie(refreshTokenCookie);
+        response.addCookie(refreshTokenService.createCookie(refreshToken));
 
         String uri = urlConfig.createURI();
 
@@ -91,19 +91,10 @@ public class Oauth2MemberSuccessHandler extends SimpleUrlAuthenticationSuccessHa
 
         String subject = email;
         Date expiration = jwtTokenizer.getTokenExpiration(jwtTokenizer.getAccessTokenExpirationMinutes());
-        String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
+        String base64EncodedSecretKey = jwtTokenizer.getBase64EncodedSecretKey();
 
         String accessToken = jwtTokenizer.generateAccessToken(claims, subject, expiration, base64EncodedSecretKey);
 
         return accessToken;
     }
-
-    private String delegateRefreshToken(String email) {
-        String subject = email;
-        Date expiration = jwtTokenizer.getTokenExpiration(jwtTokenizer.getRefreshTokenExpirationMinutes());
-        String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
-        String refreshToken = jwtTokenizer.generateRefreshToken(subject, expiration, base64EncodedSecretKey);
-
-        return refreshToken;
-    }
 }
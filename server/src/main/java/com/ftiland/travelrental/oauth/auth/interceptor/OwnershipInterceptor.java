@@ -0,0 +1,59 @@
+package com.ftiland.travelrental.oauth.auth.interceptor;
+
+import com.ftiland.travelrental.common.annotation.VerifyOwner;
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+import com.ftiland.travelrental.common.exception.ExceptionCode;
+import com.ftiland.travelrental.common.ownership.OwnershipVerifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+// @VerifyOwner가 붙은 핸들러만 확인한다. memberId는 MemberIdInterceptor가 먼저 넣어둔다.
+@Component
+@RequiredArgsConstructor
+public class OwnershipInterceptor implements HandlerInterceptor {
+
+    private static final String PRODUCT_ID = "product-id";
+    private static final String RESERVATION_ID = "reservation-id";
+
+    private final OwnershipVerifier ownershipVerifier;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        VerifyOwner verifyOwner = ((HandlerMethod) handler).getMethodAnnotation(VerifyOwner.class);
+        if (verifyOwner == null) {
+            return true;
+        }
+
+        Long memberId = (Long) request.getAttribute("memberId");
+        if (memberId == null) {
+            throw new BusinessLogicException(ExceptionCode.UNAUTHORIZED);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+
+        switch (verifyOwner.value()) {
+            case PRODUCT:
+                ownershipVerifier.verifyProductOwner(pathVariables.get(PRODUCT_ID), memberId);
+                break;
+            case RESERVATION:
+                ownershipVerifier.verifyBorrower(pathVariables.get(RESERVATION_ID), memberId);
+                break;
+            case LENT_RESERVATION:
+                ownershipVerifier.verifyLender(pathVariables.get(RESERVATION_ID), pathVariables.get(PRODUCT_ID), memberId);
+                break;
+        }
+        return true;
+    }
+}
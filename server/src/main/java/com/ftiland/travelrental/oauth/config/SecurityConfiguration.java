@@ -1,11 +1,16 @@
 package com.ftiland.travelrental.oauth.config;
 
+import com.ftiland.travelrental.common.ratelimit.RateLimitFilter;
+import com.ftiland.travelrental.common.ratelimit.RateLimitProperties;
+import com.ftiland.travelrental.common.ratelimit.RateLimiter;
 import com.ftiland.travelrental.member.service.MemberService;
 import com.ftiland.travelrental.oauth.auth.filter.JwtVerificationFilter;
 import com.ftiland.travelrental.oauth.auth.handler.MemberAccessDeniedHandler;
 import com.ftiland.travelrental.oauth.auth.handler.MemberAuthenticationEntryPoint;
 import com.ftiland.travelrental.oauth.auth.handler.Oauth2MemberSuccessHandler;
 import com.ftiland.travelrental.oauth.jwt.JwtTokenizer;
+import com.ftiland.travelrental.oauth.jwt.RefreshTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -29,11 +34,21 @@ public class SecurityConfiguration {
 
     private final MemberService memberService;
     private final UrlConfig urlConfig;
+    private final RefreshTokenService refreshTokenService;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final MeterRegistry meterRegistry;
 
-    public SecurityConfiguration(JwtTokenizer jwtTokenizer, MemberService memberService, UrlConfig urlConfig) {
+    public SecurityConfiguration(JwtTokenizer jwtTokenizer, MemberService memberService, UrlConfig urlConfig,
+                                 RefreshTokenService refreshTokenService, RateLimiter rateLimiter,
+                                 RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
         this.jwtTokenizer = jwtTokenizer;
         this.memberService = memberService;
         this.urlConfig = urlConfig;
+        this.refreshTokenService = refreshTokenService;
+        this.rateLimiter = rateLimiter;
+        this.rateLimitProperties = rateLimitProperties;
+        this.meterRegistry = meterRegistry;
     }
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -56,6 +71,7 @@ public class SecurityConfiguration {
                         .antMatchers(HttpMethod.GET,"/*/products/members/**" ).authenticated()
                         .antMatchers(HttpMethod.GET,"/*/reservations/products/*/calendar" ).permitAll()
                         .antMatchers(HttpMethod.GET,"/*/reservations/products/*/moreCalendar" ).permitAll()
+                        .antMatchers(HttpMethod.POST,"/*/reservations/products/*/quote" ).permitAll()
                         .antMatchers(HttpMethod.GET,"/*/categories").permitAll()
                         .antMatchers(HttpMethod.GET,"/api/products/**").permitAll()
                         .antMatchers("/api/chat/**").permitAll()
@@ -63,7 +79,7 @@ public class SecurityConfiguration {
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
-                        .successHandler(new Oauth2MemberSuccessHandler(jwtTokenizer, memberService, urlConfig))
+                        .successHandler(new Oauth2MemberSuccessHandler(jwtTokenizer, memberService, urlConfig, refreshTokenService))
                 );
         return http.build();
     }
@@ -71,9 +87,11 @@ public class SecurityConfiguration {
     public class CustomFilterConfigurer extends AbstractHttpConfigurer<CustomFilterConfigurer, HttpSecurity> {
         @Override
         public void configure(HttpSecurity builder) throws Exception {
-            JwtVerificationFilter jwtVerificationFilter = new JwtVerificationFilter(jwtTokenizer, memberService);
+            JwtVerificationFilter jwtVerificationFilter = new JwtVerificationFilter(jwtTokenizer, refreshTokenService);
 
             builder.addFilterAfter(jwtVerificationFilter, OAuth2LoginAuthenticationFilter.class);
+            // 회원 id로 세야 하므로 JWT 검증 다음에 둔다.
+            builder.addFilterAfter(new RateLimitFilter(rateLimiter, rateLimitProperties, meterRegistry), JwtVerificationFilter.class);
         }
     }
 
@@ -0,0 +1,84 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 단일 인스턴스용. 재시작하면 모든 가족이 사라지므로 다시 로그인해야 한다.
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+    // jti -> 만료 시각
+    private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(String familyId, String jti, long expiresAt) {
+        families.put(familyId, new Family(jti, expiresAt, null, 0));
+    }
+
+    @Override
+    public Rotation rotate(String familyId, String presentedJti, long presentedExpiresAt, String nextJti, long nextExpiresAt, long graceMillis) {
+        long now = System.currentTimeMillis();
+        Rotation[] result = {null};
+        boolean[] rotated = {false};
+        // 같은 가족에 대한 동시 회전은 compute 안에서 하나만 성공하고, 나머지는 유예 시간 안이면 그 결과를 받는다.
+        families.computeIfPresent(familyId, (id, family) -> {
+            if (family.expiresAt <= now) {
+                return null;
+            }
+            if (family.jti.equals(presentedJti)) {
+                rotated[0] = true;
+                result[0] = new Rotation(nextJti, nextExpiresAt);
+                return new Family(nextJti, nextExpiresAt, presentedJti, now);
+            }
+            if (presentedJti.equals(family.previousJti) && now - family.rotatedAt <= graceMillis) {
+                result[0] = new Rotation(family.jti, family.expiresAt);
+                return family;
+            }
+            return null;
+        });
+        if (rotated[0]) {
+            revoked.put(presentedJti, presentedExpiresAt);
+        }
+        return result[0];
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        families.remove(familyId);
+    }
+
+    // 만료된 토큰은 어차피 서명 검증에서 거절되므로 지워도 된다.
+    @Scheduled(fixedDelayString = "${jwt.refresh-store-sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        families.values().removeIf(family -> family.expiresAt <= now);
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private static final class Family {
+        private final String jti;
+        private final long expiresAt;
+        // 바로 직전 토큰과 그 토큰이 회전된 시각
+        private final String previousJti;
+        private final long rotatedAt;
+
+        private Family(String jti, long expiresAt, String previousJti, long rotatedAt) {
+            this.jti = jti;
+            this.expiresAt = expiresAt;
+            this.previousJti = previousJti;
+            this.rotatedAt = rotatedAt;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 검증이 끝난 access token의 claims를 토큰 만료 시각까지 보관한다.
+// 키는 토큰 문자열 대신 SHA-256 해시를 써서 메모리에 토큰 원문을 남기지 않는다.
+// 서명까지 포함한 토큰 전체의 해시이므로 위조한 토큰은 캐시에 걸리지 않는다.
+// 가득 차면 가장 오래 쓰이지 않은 항목 하나만 내보낸다. (전부 비우면 모든 요청이 한꺼번에 다시 검증하게 된다)
+// 조회도 접근 순서를 바꾸므로 맵 전체를 하나의 락으로 보호한다. 락 안에서는 해시 조회만 하고 해시 계산은 밖에서 한다.
+public class JwtClaimsCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int maxSize;
+    private final Map<String, CachedClaims> entries;
+
+    public JwtClaimsCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    // 없거나 만료됐으면 null
+    public Claims get(String jws) {
+        String key = hash(jws);
+        synchronized (entries) {
+            CachedClaims entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.claims;
+        }
+    }
+
+    public void put(String jws, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || maxSize <= 0) {
+            return;
+        }
+        String key = hash(jws);
+        CachedClaims entry = new CachedClaims(claims, expiration.getTime());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String hash(String jws) {
+        byte[] digest = SHA_256.get().digest(jws.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private static final class CachedClaims {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private CachedClaims(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ftiland.travelrental.oauth.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.Encoders;
@@ -10,6 +11,8 @@ import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Calendar;
@@ -18,6 +21,11 @@ import java.util.Map;
 
 @Component
 public class JwtTokenizer {
+    // 두 토큰이 같은 키로 서명되므로 종류를 claim으로 구분한다.
+    public static final String TOKEN_TYPE = "typ";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
     @Getter
     @Value("${jwt.key.secret}")
     private String secretKey;
@@ -30,6 +38,36 @@ public class JwtTokenizer {
     @Value("${jwt.refresh-token-expiration-minutes}")
     private int refreshTokenExpirationMinutes;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    // 요청마다 키를 인코딩/디코딩하고 parser를 새로 만들지 않도록 기동 시 한 번만 만든다.
+    @Getter
+    private String base64EncodedSecretKey;
+    private Key signingKey;
+    private JwtParser jwtParser;
+    private JwtParser accessTokenParser;
+    private JwtParser refreshTokenParser;
+    private JwtClaimsCache claimsCache;
+
+    @PostConstruct
+    public void init() {
+        base64EncodedSecretKey = encodeBase64SecretKey(secretKey);
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64EncodedSecretKey));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        accessTokenParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .require(TOKEN_TYPE, ACCESS_TOKEN)
+                .build();
+        refreshTokenParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .require(TOKEN_TYPE, REFRESH_TOKEN)
+                .build();
+        claimsCache = new JwtClaimsCache(claimsCacheMaxSize);
+    }
+
     public String encodeBase64SecretKey(String secretKey) {
         return Encoders.BASE64.encode(secretKey.getBytes(StandardCharsets.UTF_8));
     }
@@ -38,10 +76,23 @@ public class JwtTokenizer {
                                       String subject,
                                       Date expiration,
                                       String base64EncodedSecretKey) {
+        return generateToken(claims, ACCESS_TOKEN, subject, expiration, base64EncodedSecretKey);
+    }
+
+    // 회전용 refresh token: jti와 가족 id, memberId를 claims로 싣는다.
+    public String generateRefreshToken(Map<String, Object> claims,
+                                       String subject,
+                                       Date expiration,
+                                       String base64EncodedSecretKey) {
+        return generateToken(claims, REFRESH_TOKEN, subject, expiration, base64EncodedSecretKey);
+    }
+
+    public String generateRefreshToken(String subject,
+                                       Date expiration, String base64EncodedSecretKey) {
         Key key = getKeyFromBase64Encodedkey(base64EncodedSecretKey);
 
         return Jwts.builder()
-                .setClaims(claims)
+                .claim(TOKEN_TYPE, REFRESH_TOKEN)
                 .setSubject(subject)
                 .setIssuedAt(Calendar.getInstance().getTime())
                 .setExpiration(expiration)
@@ -49,11 +100,16 @@ public class JwtTokenizer {
                 .compact();
     }
 
-    public String generateRefreshToken(String subject,
-                                       Date expiration, String base64EncodedSecretKey) {
+    private String generateToken(Map<String, Object> claims,
+                                 String tokenType,
+                                 String subject,
+                                 Date expiration,
+                                 String base64EncodedSecretKey) {
         Key key = getKeyFromBase64Encodedkey(base64EncodedSecretKey);
 
         return Jwts.builder()
+                .setClaims(claims)
+                .claim(TOKEN_TYPE, tokenType)
                 .setSubject(subject)
                 .setIssuedAt(Calendar.getInstance().getTime())
                 .setExpiration(expiration)
@@ -62,6 +118,9 @@ public class JwtTokenizer {
     }
 
     public Jws<Claims> getClaims(String jws, String base64EncodedSecretKey) {
+        if (base64EncodedSecretKey.equals(this.base64EncodedSecretKey)) {
+            return getClaims(jws);
+        }
         Key key = getKeyFromBase64Encodedkey(base64EncodedSecretKey);
 
         Jws<Claims> claims = Jwts.parserBuilder()
@@ -72,13 +131,29 @@ public class JwtTokenizer {
         return claims;
     }
 
-    public void verifySignature(String jws, String base64EncodedSecretKey) {
-        Key key = getKeyFromBase64Encodedkey(base64EncodedSecretKey);
+    public Jws<Claims> getClaims(String jws) {
+        return jwtParser.parseClaimsJws(jws);
+    }
 
-        Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(jws);
+    // access token 검증용. 한 번 검증한 토큰은 만료 전까지 서명 검증과 파싱을 건너뛴다.
+    // 만료되면 캐시에서 빠지므로 parser가 ExpiredJwtException을 던진다.
+    // typ이 access가 아니면 (refresh token 등) InvalidClaimException으로 실패한다.
+    public Claims getVerifiedClaims(String jws) {
+        Claims claims = claimsCache.get(jws);
+        if (claims == null) {
+            claims = accessTokenParser.parseClaimsJws(jws).getBody();
+            claimsCache.put(jws, claims);
+        }
+        return claims;
+    }
+
+    // refresh token 검증용. access token을 넣으면 InvalidClaimException으로 실패한다.
+    public Claims getRefreshClaims(String jws) {
+        return refreshTokenParser.parseClaimsJws(jws).getBody();
+    }
+
+    public void verifySignature(String jws, String base64EncodedSecretKey) {
+        getClaims(jws, base64EncodedSecretKey);
     }
 
     public Date getTokenExpiration(int expirationMinutes) {
@@ -90,6 +165,9 @@ public class JwtTokenizer {
     }
 
     private Key getKeyFromBase64Encodedkey(String base64EncodedSecretKey) {
+        if (base64EncodedSecretKey.equals(this.base64EncodedSecretKey)) {
+            return signingKey;
+        }
         byte[] keyBytes = Decoders.BASE64.decode(base64EncodedSecretKey);
         Key key = Keys.hmacShaKeyFor(keyBytes);
 
@@ -0,0 +1,81 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// 여러 인스턴스용. 가족과 폐기된 jti를 토큰 만료 시각까지만 남는 키로 저장한다.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jwt.refresh-store", havingValue = "redis")
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String FAMILY_PREFIX = "auth:refresh:family:";
+    private static final String REVOKED_PREFIX = "auth:refresh:revoked:";
+
+    // 가족 키는 hash로 현재 jti와 만료 시각, 직전 jti와 회전 시각을 함께 둔다.
+    private static final RedisScript<Long> REGISTER = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) " +
+            "redis.call('HSET', KEYS[1], 'jti', ARGV[1], 'exp', ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1", Long.class);
+
+    // 비교와 교체를 한 번에 해야 같은 토큰으로 동시에 들어온 두 요청이 모두 회전시키지 않는다.
+    // 진 요청은 직전 토큰이 유예 시간 안에 회전된 경우에만 이긴 요청이 만든 현재 토큰을 받는다.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE = new DefaultRedisScript<>(
+            "local current = redis.call('HGET', KEYS[1], 'jti') " +
+            "if current == ARGV[1] then " +
+            "  redis.call('HSET', KEYS[1], 'jti', ARGV[2], 'exp', ARGV[3], 'prev', ARGV[1], 'rotatedAt', ARGV[6]) " +
+            "  redis.call('PEXPIRE', KEYS[1], ARGV[4]) " +
+            "  redis.call('SET', KEYS[2], '1', 'PX', ARGV[5]) " +
+            "  return {ARGV[2], ARGV[3]} " +
+            "end " +
+            "if current and redis.call('HGET', KEYS[1], 'prev') == ARGV[1] " +
+            "    and tonumber(ARGV[6]) - tonumber(redis.call('HGET', KEYS[1], 'rotatedAt')) <= tonumber(ARGV[7]) then " +
+            "  return {current, redis.call('HGET', KEYS[1], 'exp')} " +
+            "end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return false", List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void register(String familyId, String jti, long expiresAt) {
+        redisTemplate.execute(REGISTER, List.of(FAMILY_PREFIX + familyId),
+                jti, String.valueOf(expiresAt), String.valueOf(ttl(expiresAt)));
+    }
+
+    @Override
+    public Rotation rotate(String familyId, String presentedJti, long presentedExpiresAt, String nextJti, long nextExpiresAt, long graceMillis) {
+        List<?> result = redisTemplate.execute(ROTATE,
+                List.of(FAMILY_PREFIX + familyId, REVOKED_PREFIX + presentedJti),
+                presentedJti, nextJti, String.valueOf(nextExpiresAt), String.valueOf(ttl(nextExpiresAt)),
+                String.valueOf(ttl(presentedExpiresAt)), String.valueOf(System.currentTimeMillis()), String.valueOf(graceMillis));
+        if (result == null || result.size() != 2) {
+            return null;
+        }
+        return new Rotation(String.valueOf(result.get(0)), Long.parseLong(String.valueOf(result.get(1))));
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_PREFIX + jti));
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        redisTemplate.delete(FAMILY_PREFIX + familyId);
+    }
+
+    // PX는 0 이하를 받지 않는다.
+    private static long ttl(long expiresAt) {
+        return Math.max(1, expiresAt - System.currentTimeMillis());
+    }
+}
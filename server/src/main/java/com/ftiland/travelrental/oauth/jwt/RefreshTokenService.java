@@ -0,0 +1,112 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+import com.ftiland.travelrental.common.exception.ExceptionCode;
+import com.ftiland.travelrental.member.dto.MemberSummary;
+import com.ftiland.travelrental.member.service.MemberService;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.Cookie;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// refresh token을 쓸 때마다 새 토큰으로 바꿔 준다. 이미 바뀐 토큰이 다시 들어오면 가족 전체를 폐기해 재로그인을 강제한다.
+// 단, 방금 바뀐 직전 토큰은 짧은 유예 시간 동안 현재 토큰을 다시 내어 준다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    public static final String COOKIE_NAME = "refreshToken";
+    private static final String FAMILY_CLAIM = "fid";
+
+    private final JwtTokenizer jwtTokenizer;
+    private final RefreshTokenStore refreshTokenStore;
+    private final MemberService memberService;
+
+    // SPA의 여러 탭이나 동시 요청이 같은 refresh token을 거의 동시에 쓰는 경우를 재사용으로 보지 않는 시간
+    @Value("${jwt.refresh-grace-ms:10000}")
+    private long graceMillis;
+
+    // 로그인 시 새 가족을 시작한다.
+    public String issue(Long memberId, String email) {
+        String familyId = UUID.randomUUID().toString();
+        String jti = UUID.randomUUID().toString();
+        Date expiration = jwtTokenizer.getTokenExpiration(jwtTokenizer.getRefreshTokenExpirationMinutes());
+
+        refreshTokenStore.register(familyId, jti, expiration.getTime());
+        return createRefreshToken(memberId, email, familyId, jti, expiration);
+    }
+
+    // 만료·위조된 토큰이나 access token은 JwtException, 회전 규칙 위반은 BusinessLogicException
+    public Tokens refresh(String refreshToken) {
+        Claims claims = jwtTokenizer.getRefreshClaims(refreshToken);
+        String familyId = claims.get(FAMILY_CLAIM, String.class);
+        Number memberId = claims.get("memberId", Number.class);
+        String jti = claims.getId();
+        if (familyId == null || memberId == null || jti == null) {
+            // 회전 도입 전에 발급된 토큰
+            throw new BusinessLogicException(ExceptionCode.INVALID_REFRESH_TOKEN);
+        }
+
+        // 회원 정보는 DB 대신 요약 캐시에서 읽는다.
+        MemberSummary member = memberService.findMemberSummary(memberId.longValue());
+
+        String nextJti = UUID.randomUUID().toString();
+        Date expiration = jwtTokenizer.getTokenExpiration(jwtTokenizer.getRefreshTokenExpirationMinutes());
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(familyId, jti, claims.getExpiration().getTime(),
+                nextJti, expiration.getTime(), graceMillis);
+        if (rotation == null) {
+            log.warn("refresh token reused. memberId={}, family={}", memberId, familyId);
+            throw new BusinessLogicException(ExceptionCode.REFRESH_TOKEN_REUSED);
+        }
+
+        // 유예 시간 안에 들어온 직전 토큰이면 먼저 회전한 요청과 같은 jti의 토큰을 받는다.
+        String nextRefreshToken = createRefreshToken(member.getMemberId(), member.getEmail(), familyId,
+                rotation.getJti(), new Date(rotation.getExpiresAt()));
+        return new Tokens(createAccessToken(member), nextRefreshToken);
+    }
+
+    public Cookie createCookie(String refreshToken) {
+        Cookie refreshTokenCookie = new Cookie(COOKIE_NAME, refreshToken);
+        refreshTokenCookie.setSecure(false);
+        refreshTokenCookie.setHttpOnly(true);
+        refreshTokenCookie.setPath("/");
+        refreshTokenCookie.setMaxAge(30 * 24 * 60 * 60);
+        return refreshTokenCookie;
+    }
+
+    private String createAccessToken(MemberSummary member) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("memberId", member.getMemberId());
+        claims.put("displayName", member.getDisplayName());
+        claims.put("email", member.getEmail());
+
+        Date expiration = jwtTokenizer.getTokenExpiration(jwtTokenizer.getAccessTokenExpirationMinutes());
+        return jwtTokenizer.generateAccessToken(claims, member.getEmail(), expiration, jwtTokenizer.getBase64EncodedSecretKey());
+    }
+
+    private String createRefreshToken(Long memberId, String email, String familyId, String jti, Date expiration) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(Claims.ID, jti);
+        claims.put(FAMILY_CLAIM, familyId);
+        claims.put("memberId", memberId);
+
+        return jwtTokenizer.generateRefreshToken(claims, email, expiration, jwtTokenizer.getBase64EncodedSecretKey());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Tokens {
+        private String accessToken;
+        private String refreshToken;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// refresh token 회전 상태 저장소.
+// 로그인 한 번에서 이어지는 refresh token들을 하나의 가족(familyId)으로 묶고, 가족마다 현재 유효한 jti 하나만 기억한다.
+// 시각은 모두 epoch millis이고, 항목은 해당 토큰이 만료되면 함께 사라진다.
+public interface RefreshTokenStore {
+
+    // 로그인 시 새 가족을 시작한다.
+    void register(String familyId, String jti, long expiresAt);
+
+    // presentedJti가 가족의 현재 토큰이면 nextJti로 바꾸고 presentedJti를 폐기 목록에 넣은 뒤 nextJti를 돌려준다.
+    // 바로 직전 토큰이 graceMillis 안에 다시 들어오면 (여러 탭이 동시에 refresh) 가족은 그대로 두고 현재 토큰을 돌려준다.
+    // 그 밖에 이미 회전된 토큰이 다시 들어오면 (탈취 의심) 가족 전체를 폐기하고 null을 돌려준다.
+    Rotation rotate(String familyId, String presentedJti, long presentedExpiresAt, String nextJti, long nextExpiresAt, long graceMillis);
+
+    boolean isRevoked(String jti);
+
+    void revokeFamily(String familyId);
+
+    // 클라이언트에게 발급할 가족의 현재 토큰
+    @Getter
+    @AllArgsConstructor
+    class Rotation {
+        private final String jti;
+        private final long expiresAt;
+    }
+}
@@ -1,6 +1,8 @@
 package com.ftiland.travelrental.product.controller;
 
 import com.ftiland.travelrental.common.annotation.CurrentMember;
+import com.ftiland.travelrental.common.annotation.VerifyOwner;
+import com.ftiland.travelrental.common.ownership.Ownership;
 import com.ftiland.travelrental.image.dto.ImageDto;
 import com.ftiland.travelrental.image.entity.ImageProduct;
 import com.ftiland.travelrental.image.service.ImageService;
@@ -57,17 +59,17 @@ public class ProductController {
         return ResponseEntity.created(uri).body(response);
     }
 
+    @VerifyOwner(Ownership.PRODUCT)
     @PatchMapping("/{product-id}")
     public ResponseEntity<UpdateProduct.Response> updateProduct(@PathVariable("product-id") String productId,
                                                                 @Valid @RequestPart UpdateProduct.Request request,
-                                                                @RequestPart List<MultipartFile> images,
-                                                                @CurrentMember Long memberId) {
+                                                                @RequestPart List<MultipartFile> images) {
         log.info("[ProductController] updateProduct called");
 
         // 이미지 저장
         List<ImageDto> imageDtos = imageService.storeImages(images);
 
-        UpdateProduct.Response response = productService.updateProduct(request, productId, memberId, imageDtos);
+        UpdateProduct.Response response = productService.updateProduct(request, productId, imageDtos);
 
         // 이전 이미지 삭제
         imageService.deleteImages(response.getDeletedImageName());
@@ -75,12 +77,12 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @VerifyOwner(Ownership.PRODUCT)
     @DeleteMapping("/{product-id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable("product-id") String productId,
-                                              @CurrentMember Long memberId) {
+    public ResponseEntity<Void> deleteProduct(@PathVariable("product-id") String productId) {
         log.info("[ProductController] deleteProduct called");
 
-        productService.deleteProduct(productId, memberId);
+        productService.deleteProduct(productId);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
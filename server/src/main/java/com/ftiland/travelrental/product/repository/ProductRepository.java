@@ -5,6 +5,7 @@ import com.ftiland.travelrental.product.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,6 +19,8 @@ public interface ProductRepository extends JpaRepository<Product, String> {
 
     List<Product> findAllByMemberMemberId(Long memberId);
 
+    boolean existsByProductIdAndMemberMemberId(String productId, Long memberId);
+
     @Query("SELECT new com.ftiland.travelrental.product.dto.ProductDto(p.productId, p.title, p.content, p.baseFee, p.feePerDay, p.minimumRentalPeriod, p.mainImage, p.address) " +
             "FROM ProductCategory pc " +
             "JOIN pc.product p " +
@@ -79,5 +82,11 @@ public interface ProductRepository extends JpaRepository<Product, String> {
 
     Page<Product> findByTitleContainingOrContentContaining(String title, String content, Pageable pageable);
 
+    // 읽고-수정-쓰기 대신 DB에서 원자적으로 증가시켜 동시 평가 시 업데이트가 유실되지 않게 한다.
+    @Modifying
+    @Query("UPDATE Product p SET p.totalRateCount = p.totalRateCount + 1, " +
+            "p.totalRateScore = p.totalRateScore + :score WHERE p.productId = :productId")
+    int increaseRate(@Param("productId") String productId, @Param("score") int score);
+
 
 }
\ No newline at end of file
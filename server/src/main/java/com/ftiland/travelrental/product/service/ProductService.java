@@ -23,10 +23,12 @@ import com.ftiland.travelrental.product.entity.ProductCategory;
 import com.ftiland.travelrental.product.repository.ProductCategoryRepository;
 import com.ftiland.travelrental.product.repository.ProductRepository;
 import com.ftiland.travelrental.product.sort.SortBy;
+import com.ftiland.travelrental.reservation.service.ReservationPricingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -95,24 +97,15 @@ public class ProductService {
         }
     }
 
-    private void validateOwner(Member member, Product product) {
-        if (!member.getMemberId().equals(product.getMember().getMemberId())) {
-            throw new BusinessLogicException(ExceptionCode.UNAUTHORIZED);
-        }
-    }
-
     @Transactional
     //@CacheEvict(key = "#productId", value = "products")
+    @CacheEvict(key = "#productId", value = ReservationPricingService.PRICING_CACHE)
+    // 소유자 확인은 컨트롤러의 @VerifyOwner(PRODUCT)가 먼저 한다.
     public UpdateProduct.Response updateProduct(UpdateProduct.Request request,
                                                 String productId,
-                                                Long memberId,
                                                 List<ImageDto> images) {
-        Member member = memberService.findMember(memberId);
-
         Product product = findProduct(productId);
 
-        validateOwner(member, product);
-
         Optional.ofNullable(request.getBaseFee())
                 .ifPresent(baseFee -> product.setBaseFee(baseFee));
         Optional.ofNullable(request.getTitle())
@@ -139,14 +132,13 @@ public class ProductService {
     }
 
     @Transactional
-    @CacheEvict(key = "#productId", value = "products")
-    public void deleteProduct(String productId, Long memberId) {
-        Member member = memberService.findMember(memberId);
-
+    @Caching(evict = {
+            @CacheEvict(key = "#productId", value = "products"),
+            @CacheEvict(key = "#productId", value = ReservationPricingService.PRICING_CACHE)
+    })
+    public void deleteProduct(String productId) {
         Product product = findProduct(productId);
 
-        validateOwner(member, product);
-
         productRepository.delete(product);
     }
 
@@ -168,7 +160,7 @@ public class ProductService {
     }
 
     public GetProducts findProducts(Long memberId, int size, int page) {
-        Member member = memberService.findMember(memberId);
+        memberService.findMemberSummary(memberId);
 
         Page<ProductDto> products = productRepository.findProductDtosByMemberId(memberId, PageRequest.of(page, size));
 
@@ -181,6 +173,13 @@ public class ProductService {
         product.setViewCount(product.getViewCount() + 1);
     }
 
+    @Transactional
+    public void increaseRate(String productId, int score) {
+        if (productRepository.increaseRate(productId, score) == 0) {
+            throw new BusinessLogicException(PRODUCT_NOT_FOUND);
+        }
+    }
+
     public List<Product> findProductByMemberId(Long memberId) {
         return productRepository.findAllByMemberMemberId(memberId);
     }
@@ -1,68 +1,75 @@
 package com.ftiland.travelrental.reservation.controller;
 
 import com.ftiland.travelrental.common.annotation.CurrentMember;
+import com.ftiland.travelrental.common.annotation.VerifyOwner;
+import com.ftiland.travelrental.common.ownership.Ownership;
 import com.ftiland.travelrental.reservation.dto.*;
+import com.ftiland.travelrental.reservation.facade.ReservationLockFacade;
 import com.ftiland.travelrental.reservation.service.ReservationService;
 import com.ftiland.travelrental.reservation.status.ReservationStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import java.net.URI;
 import java.util.List;
 
 @Slf4j
+@Validated
 @RestController
 @RequestMapping("/api/reservations")
 @RequiredArgsConstructor
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationLockFacade reservationLockFacade;
 
     @PostMapping("/products/{product-id}")
     public ResponseEntity<CreateReservation.Response> createReservation(
             @Valid @RequestBody CreateReservation.Request request,
-            @Positive @PathVariable("product-id") String productId,
+            @PathVariable("product-id") String productId,
             @CurrentMember Long memberId) {
         log.info("[ReservationController] createReservation called");
 
-        CreateReservation.Response response = reservationService.createReservation(request, productId, memberId);
+        CreateReservation.Response response = reservationLockFacade.createReservation(request, productId, memberId);
 
         URI uri = URI.create(String.format("/api/reservation/%s", response.getReservationId()));
         return ResponseEntity.created(uri).body(response);
     }
 
+    @VerifyOwner(Ownership.RESERVATION)
     @PatchMapping("/{reservation-id}/cancel")
     public ResponseEntity<CancelReservation.Response> cancelReservationByBorrower(
-            @Positive @PathVariable("reservation-id") String reservationId,
-            @CurrentMember Long memberId) {
+            @PathVariable("reservation-id") String reservationId) {
         log.info("[ReservationController] cancelReservationByBorrower called");
 
-        return ResponseEntity.ok(reservationService.cancelReservationByBorrower(reservationId, memberId));
+        return ResponseEntity.ok(reservationLockFacade.cancelReservationByBorrower(reservationId));
     }
 
+    @VerifyOwner(Ownership.LENT_RESERVATION)
     @PatchMapping("/{reservation-id}/products/{product-id}/cancel")
     public ResponseEntity<CancelReservation.Response> cancelReservationByLender(
-            @Positive @PathVariable("reservation-id") String reservationId,
-            @Positive @PathVariable("product-id") String productId,
-            @CurrentMember Long memberId) {
+            @PathVariable("reservation-id") String reservationId,
+            @PathVariable("product-id") String productId) {
         log.info("[ReservationController] cancelReservationByLender called");
 
-        return ResponseEntity.ok(reservationService.cancelReservationByLender(reservationId, productId, memberId));
+        return ResponseEntity.ok(reservationLockFacade.cancelReservationByLender(reservationId, productId));
     }
 
+    @VerifyOwner(Ownership.LENT_RESERVATION)
     @PatchMapping("/{reservation-id}/products/{product-id}/accept")
     public ResponseEntity<AcceptReservation.Response> acceptReservationByLender(
-            @Positive @PathVariable("reservation-id") String reservationId,
-            @Positive @PathVariable("product-id") String productId,
-            @CurrentMember Long memberId) {
+            @PathVariable("reservation-id") String reservationId,
+            @PathVariable("product-id") String productId) {
         log.info("[ReservationController] acceptReservationByLender called");
 
-        return ResponseEntity.ok(reservationService.acceptReservationByLender(reservationId, productId, memberId));
+        return ResponseEntity.ok(reservationLockFacade.acceptReservationByLender(reservationId, productId));
     }
 
     @GetMapping
@@ -79,16 +86,48 @@ public class ReservationController {
         return ResponseEntity.ok(response);
     }
 
+    @VerifyOwner(Ownership.PRODUCT)
     @GetMapping("/products/{product-id}")
     public ResponseEntity<GetLendReservations> getReservationsByLender(
             @PathVariable("product-id") String productId,
             @RequestParam ReservationStatus status,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "0") int page,
-            @CurrentMember Long memberId) {
+            @RequestParam(defaultValue = "0") int page) {
         log.info("[ReservationController] getReservationsByLender called");
 
-        return ResponseEntity.ok(reservationService.getReservationByLender(memberId, productId, status, size, page));
+        return ResponseEntity.ok(reservationService.getReservationByLender(productId, status, size, page));
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<GetBorrowReservations> getReservationsByBorrowerCursor(
+            @RequestParam ReservationStatus status,
+            @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+            @RequestParam(required = false) String cursor,
+            @CurrentMember Long memberId) {
+        log.info("[ReservationController] getReservationsByBorrowerCursor called");
+
+        return ResponseEntity.ok(reservationService.getReservationByBorrower(memberId, status, size, cursor));
+    }
+
+    @VerifyOwner(Ownership.PRODUCT)
+    @GetMapping("/products/{product-id}/cursor")
+    public ResponseEntity<GetLendReservations> getReservationsByLenderCursor(
+            @PathVariable("product-id") String productId,
+            @RequestParam ReservationStatus status,
+            @RequestParam(defaultValue = "20") @Positive @Max(100) int size,
+            @RequestParam(required = false) String cursor) {
+        log.info("[ReservationController] getReservationsByLenderCursor called");
+
+        return ResponseEntity.ok(reservationService.getReservationByLender(productId, status, size, cursor));
+    }
+
+    @PostMapping("/products/{product-id}/quote")
+    public ResponseEntity<QuoteReservation.Response> quoteReservations(
+            @Valid @RequestBody QuoteReservation.Request request,
+            @PathVariable("product-id") String productId) {
+        log.info("[ReservationController] quoteReservations called");
+
+        return ResponseEntity.ok(reservationService.quoteReservations(productId, request));
     }
 
     @GetMapping("/products/{product-id}/calendar")
@@ -113,7 +152,7 @@ public class ReservationController {
     @PostMapping("/{reservation-id}/rate")
     public ResponseEntity<Void> rateReservation(
             @Valid @RequestBody RateReservation.Request request,
-            @Positive @PathVariable("reservation-id") String reservationId,
+            @PathVariable("reservation-id") String reservationId,
             @CurrentMember Long memberId) {
         log.info("[ReservationController] getReservationsByMoreMonth called");
 
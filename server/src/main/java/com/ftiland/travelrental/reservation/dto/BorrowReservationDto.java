@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Getter
 @NoArgsConstructor
@@ -21,4 +22,5 @@ public class BorrowReservationDto {
     private LocalDate startDate;
     private LocalDate endDate;
     private ReservationStatus status;
+    private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.ftiland.travelrental.reservation.dto;
 
+import com.ftiland.travelrental.common.CursorInfo;
+import com.ftiland.travelrental.common.KeysetCursor;
 import com.ftiland.travelrental.common.PageInfo;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,6 +22,7 @@ import java.util.List;
 public class GetBorrowReservations {
     private List<BorrowReservationDto> reservations;
     private PageInfo pageInfo;
+    private CursorInfo cursorInfo;
 
 
     public static GetBorrowReservations from(Page<BorrowReservationDto> reservations) {
@@ -30,4 +33,20 @@ public class GetBorrowReservations {
                 .reservations(reservations.getContent())
                 .pageInfo(pageInfo).build();
     }
+
+    // size + 1개를 조회해서 다음 페이지 존재 여부를 판단한다.
+    public static GetBorrowReservations of(List<BorrowReservationDto> reservations, int size) {
+        boolean hasNext = reservations.size() > size;
+        List<BorrowReservationDto> content = hasNext ? reservations.subList(0, size) : reservations;
+
+        String nextCursor = null;
+        if (hasNext) {
+            BorrowReservationDto last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getReservationId()).encode();
+        }
+
+        return GetBorrowReservations.builder()
+                .reservations(content)
+                .cursorInfo(new CursorInfo(content.size(), hasNext, nextCursor)).build();
+    }
 }
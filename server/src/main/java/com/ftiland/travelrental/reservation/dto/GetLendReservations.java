@@ -1,5 +1,7 @@
 package com.ftiland.travelrental.reservation.dto;
 
+import com.ftiland.travelrental.common.CursorInfo;
+import com.ftiland.travelrental.common.KeysetCursor;
 import com.ftiland.travelrental.common.PageInfo;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,6 +18,7 @@ import java.util.List;
 public class GetLendReservations {
     private List<LendReservationDto> reservations;
     private PageInfo pageInfo;
+    private CursorInfo cursorInfo;
 
 
     public static GetLendReservations from(Page<LendReservationDto> reservations) {
@@ -26,4 +29,20 @@ public class GetLendReservations {
                 .reservations(reservations.getContent())
                 .pageInfo(pageInfo).build();
     }
+
+    // size + 1개를 조회해서 다음 페이지 존재 여부를 판단한다.
+    public static GetLendReservations of(List<LendReservationDto> reservations, int size) {
+        boolean hasNext = reservations.size() > size;
+        List<LendReservationDto> content = hasNext ? reservations.subList(0, size) : reservations;
+
+        String nextCursor = null;
+        if (hasNext) {
+            LendReservationDto last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getReservationId()).encode();
+        }
+
+        return GetLendReservations.builder()
+                .reservations(content)
+                .cursorInfo(new CursorInfo(content.size(), hasNext, nextCursor)).build();
+    }
 }
@@ -0,0 +1,14 @@
+package com.ftiland.travelrental.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class ReservedPeriodDto {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
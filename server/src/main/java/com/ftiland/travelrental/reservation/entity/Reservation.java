@@ -1,6 +1,7 @@
 package com.ftiland.travelrental.reservation.entity;
 
 import com.ftiland.travelrental.common.aduit.BaseEntity;
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
 import com.ftiland.travelrental.member.entity.Member;
 import com.ftiland.travelrental.product.entity.Product;
 import com.ftiland.travelrental.reservation.status.ReservationStatus;
@@ -14,10 +15,17 @@ import org.hibernate.annotations.OnDeleteAction;
 import javax.persistence.*;
 import java.time.LocalDate;
 
+import static com.ftiland.travelrental.common.exception.ExceptionCode.NOT_POSSIBLE_ACCEPT;
+import static com.ftiland.travelrental.common.exception.ExceptionCode.NOT_POSSIBLE_CANCEL;
+
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_reservation_member_status_created", columnList = "member_id, status, created_at"),
+        @Index(name = "idx_reservation_product_status_created", columnList = "product_id, status, created_at")
+})
 @Builder
 public class Reservation extends BaseEntity {
 
@@ -31,6 +39,10 @@ public class Reservation extends BaseEntity {
     @Enumerated(value = EnumType.STRING)
     private ReservationStatus status;
 
+    // 한 예약은 한 번만 평가할 수 있다.
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean rated;
+
     @ManyToOne
     @JoinColumn(name = "member_id")
     @OnDelete(action = OnDeleteAction.CASCADE)
@@ -44,4 +56,18 @@ public class Reservation extends BaseEntity {
     public void setStatus(ReservationStatus status) {
         this.status = status;
     }
+
+    public void accept() {
+        if (!status.canTransitionTo(ReservationStatus.RESERVED)) {
+            throw new BusinessLogicException(NOT_POSSIBLE_ACCEPT);
+        }
+        this.status = ReservationStatus.RESERVED;
+    }
+
+    public void cancel() {
+        if (!status.canTransitionTo(ReservationStatus.CANCELED)) {
+            throw new BusinessLogicException(NOT_POSSIBLE_CANCEL);
+        }
+        this.status = ReservationStatus.CANCELED;
+    }
 }
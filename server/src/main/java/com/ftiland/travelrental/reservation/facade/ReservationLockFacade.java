@@ -0,0 +1,60 @@
+package com.ftiland.travelrental.reservation.facade;
+
+import com.ftiland.travelrental.common.lock.StripedLock;
+import com.ftiland.travelrental.reservation.dto.AcceptReservation;
+import com.ftiland.travelrental.reservation.dto.CancelReservation;
+import com.ftiland.travelrental.reservation.dto.CreateReservation;
+import com.ftiland.travelrental.reservation.service.ReservationPricingService;
+import com.ftiland.travelrental.reservation.service.ReservationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// 같은 상품의 예약 생성/승인/취소를 상품 단위로 직렬화한다.
+// 락 안에서 ReservationService의 트랜잭션이 커밋까지 끝나도록 트랜잭션 바깥에서 락을 잡는다.
+// 커밋이 끝난 뒤 견적 캐시를 지운다. 견적 조회는 이 락을 잡지 않으므로, 그 사이 커밋 전 값을 읽은 조회가
+// 다시 캐시하는 것은 ReservationPricingService의 버전 비교가 막는다.
+@Component
+public class ReservationLockFacade {
+
+    private final ReservationService reservationService;
+    private final ReservationPricingService reservationPricingService;
+    private final StripedLock productLocks;
+
+    public ReservationLockFacade(ReservationService reservationService,
+                                 ReservationPricingService reservationPricingService,
+                                 @Value("${reservation.lock.stripes:256}") int stripes,
+                                 @Value("${reservation.lock.timeout-ms:3000}") long timeoutMillis) {
+        this.reservationService = reservationService;
+        this.reservationPricingService = reservationPricingService;
+        this.productLocks = new StripedLock(stripes, timeoutMillis);
+    }
+
+    public CreateReservation.Response createReservation(CreateReservation.Request request,
+                                                        String productId,
+                                                        Long memberId) {
+        return productLocks.executeWithLock(productId,
+                () -> evictAfter(productId, reservationService.createReservation(request, productId, memberId)));
+    }
+
+    public AcceptReservation.Response acceptReservationByLender(String reservationId, String productId) {
+        return productLocks.executeWithLock(productId,
+                () -> evictAfter(productId, reservationService.acceptReservationByLender(reservationId, productId)));
+    }
+
+    public CancelReservation.Response cancelReservationByLender(String reservationId, String productId) {
+        return productLocks.executeWithLock(productId,
+                () -> evictAfter(productId, reservationService.cancelReservationByLender(reservationId)));
+    }
+
+    public CancelReservation.Response cancelReservationByBorrower(String reservationId) {
+        String productId = reservationService.findProductId(reservationId);
+
+        return productLocks.executeWithLock(productId,
+                () -> evictAfter(productId, reservationService.cancelReservationByBorrower(reservationId)));
+    }
+
+    private <T> T evictAfter(String productId, T result) {
+        reservationPricingService.evictSnapshot(productId);
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ftiland.travelrental.reservation.pricing;
+
+// 요금 계산은 엔티티나 DB에 의존하지 않는 순수 함수로 둔다.
+// 날짜는 epoch day(long)로 받아 반복 호출해도 객체를 만들지 않는다.
+public final class FeeCalculator {
+
+    private FeeCalculator() {
+    }
+
+    // 시작일과 종료일을 모두 포함한 대여 일수
+    public static int rentalDays(long startEpochDay, long endEpochDay) {
+        return (int) (endEpochDay - startEpochDay + 1);
+    }
+
+    public static boolean meetsMinimumPeriod(int minimumRentalPeriod, int rentalDays) {
+        return rentalDays >= minimumRentalPeriod;
+    }
+
+    // 최소 대여기간까지는 기본요금, 초과한 날짜마다 일일요금을 더한다.
+    public static int totalFee(int baseFee, int feePerDay, int minimumRentalPeriod, int rentalDays) {
+        int overDays = Math.max(0, rentalDays - minimumRentalPeriod);
+        return baseFee + overDays * feePerDay;
+    }
+}
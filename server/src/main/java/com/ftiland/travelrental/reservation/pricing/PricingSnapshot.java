@@ -0,0 +1,65 @@
+package com.ftiland.travelrental.reservation.pricing;
+
+import com.ftiland.travelrental.product.entity.Product;
+import com.ftiland.travelrental.reservation.dto.ReservedPeriodDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// 견적 계산에 필요한 상품 요금 정보와 예약된 기간을 redis에 캐시하기 위한 스냅샷
+// 기본 ObjectMapper에 JavaTimeModule이 없으므로 날짜는 epoch day 배열로 저장한다.
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingSnapshot {
+
+    private int baseFee;
+    private int feePerDay;
+    private int minimumRentalPeriod;
+
+    // 시작일 오름차순, endDate는 저장된 값(종료일 다음 날)
+    private long[] startDays;
+    // maxEndDays[i] = max(endDate[0..i]) -> 이진 탐색 한 번으로 겹침을 판단할 수 있다.
+    private long[] maxEndDays;
+
+    public static PricingSnapshot of(Product product, List<ReservedPeriodDto> periods) {
+        ReservedPeriodDto[] sorted = periods.toArray(new ReservedPeriodDto[0]);
+        Arrays.sort(sorted, Comparator.comparing(ReservedPeriodDto::getStartDate));
+
+        long[] startDays = new long[sorted.length];
+        long[] maxEndDays = new long[sorted.length];
+        long maxEnd = Long.MIN_VALUE;
+        for (int i = 0; i < sorted.length; i++) {
+            startDays[i] = sorted[i].getStartDate().toEpochDay();
+            maxEnd = Math.max(maxEnd, sorted[i].getEndDate().toEpochDay());
+            maxEndDays[i] = maxEnd;
+        }
+
+        return new PricingSnapshot(product.getBaseFee(), product.getFeePerDay(),
+                product.getMinimumRentalPeriod(), startDays, maxEndDays);
+    }
+
+    // createReservation의 중복 검사와 같은 조건: start <= 요청 종료일 + 1 AND end >= 요청 시작일
+    public boolean isBooked(long startEpochDay, long endEpochDay) {
+        int idx = lastStartAtOrBefore(endEpochDay + 1);
+        return idx >= 0 && maxEndDays[idx] >= startEpochDay;
+    }
+
+    private int lastStartAtOrBefore(long epochDay) {
+        int low = 0;
+        int high = startDays.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (startDays[mid] <= epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
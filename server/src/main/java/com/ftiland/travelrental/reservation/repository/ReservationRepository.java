@@ -2,17 +2,21 @@ package com.ftiland.travelrental.reservation.repository;
 
 import com.ftiland.travelrental.reservation.dto.BorrowReservationDto;
 import com.ftiland.travelrental.reservation.dto.LendReservationDto;
+import com.ftiland.travelrental.reservation.dto.ReservedPeriodDto;
 import com.ftiland.travelrental.reservation.entity.Reservation;
 import com.ftiland.travelrental.reservation.status.ReservationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, String> {
@@ -28,15 +32,45 @@ public interface ReservationRepository extends JpaRepository<Reservation, String
     List<Reservation> findReservationByDate(@Param("productId") String productId, @Param("status") ReservationStatus status,
                                             @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT new com.ftiland.travelrental.reservation.dto.LendReservationDto(r.reservationId, im.imageUrl, m.displayName, r.startDate, r.endDate, r.status) " +
+    // 견적 계산용: 아직 끝나지 않은 유효한 예약 기간만 가져온다.
+    @Query("SELECT new com.ftiland.travelrental.reservation.dto.ReservedPeriodDto(r.startDate, r.endDate) " +
+            "FROM Reservation r " +
+            "WHERE r.product.productId = :productId AND r.status != :status AND r.endDate >= :today")
+    List<ReservedPeriodDto> findReservedPeriods(@Param("productId") String productId,
+                                                @Param("status") ReservationStatus status,
+                                                @Param("today") LocalDate today);
+
+    // 대여자 이미지는 Member.imageUrl에 비정규화되어 있으므로 ImageMember를 조인하지 않는다.
+    // (product_id, status, created_at) 인덱스를 타고 fan-out이 없으므로 GROUP BY도 필요없다.
+    @Query(value = "SELECT new com.ftiland.travelrental.reservation.dto.LendReservationDto(r.reservationId, m.imageUrl, m.displayName, r.startDate, r.endDate, r.status, r.createdAt) " +
             "FROM Reservation r JOIN r.member m " +
-            "JOIN ImageMember im on im.member.memberId = m.memberId " +
             "WHERE r.product.productId = :productId AND r.status = :status " +
-            "GROUP BY r.reservationId")
+            "ORDER BY r.createdAt ASC, r.reservationId ASC",
+            countQuery = "SELECT COUNT(r) FROM Reservation r " +
+                    "WHERE r.product.productId = :productId AND r.status = :status")
     Page<LendReservationDto> findLendReservationDtosByProductId(@Param("productId") String productId,
                                                                 @Param("status") ReservationStatus status,
                                                                 Pageable pageable);
 
+    @Query("SELECT new com.ftiland.travelrental.reservation.dto.LendReservationDto(r.reservationId, m.imageUrl, m.displayName, r.startDate, r.endDate, r.status, r.createdAt) " +
+            "FROM Reservation r JOIN r.member m " +
+            "WHERE r.product.productId = :productId AND r.status = :status " +
+            "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.reservationId > :reservationId)) " +
+            "ORDER BY r.createdAt ASC, r.reservationId ASC")
+    List<LendReservationDto> findLendReservationDtosByProductIdAfter(@Param("productId") String productId,
+                                                                     @Param("status") ReservationStatus status,
+                                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                                     @Param("reservationId") String reservationId,
+                                                                     Pageable pageable);
+
+    @Query("SELECT new com.ftiland.travelrental.reservation.dto.LendReservationDto(r.reservationId, m.imageUrl, m.displayName, r.startDate, r.endDate, r.status, r.createdAt) " +
+            "FROM Reservation r JOIN r.member m " +
+            "WHERE r.product.productId = :productId AND r.status = :status " +
+            "ORDER BY r.createdAt ASC, r.reservationId ASC")
+    List<LendReservationDto> findLendReservationDtosByProductIdFirst(@Param("productId") String productId,
+                                                                     @Param("status") ReservationStatus status,
+                                                                     Pageable pageable);
+
     /*@Query("SELECT new com.ftiland.travelrental.reservation.dto.BorrowReservationDto(r.reservationId, ip.imageUrl, p.title, r.startDate, r.endDate, r.status) " +
             "FROM Reservation r JOIN r.product p " +
             "JOIN ImageProduct ip on ip.product.productId = p.productId " +
@@ -46,14 +80,67 @@ public interface ReservationRepository extends JpaRepository<Reservation, String
                                                                    @Param("status") ReservationStatus status,
                                                                    Pageable pageable);*/
 
-    @Query("SELECT new com.ftiland.travelrental.reservation.dto.BorrowReservationDto(r.reservationId, p.mainImage, p.title, r.startDate, r.endDate, r.status) " +
+    @Query(value = "SELECT new com.ftiland.travelrental.reservation.dto.BorrowReservationDto(r.reservationId, p.mainImage, p.title, r.startDate, r.endDate, r.status, r.createdAt) " +
             "FROM Reservation r JOIN r.product p " +
-            "WHERE r.member.memberId = :memberId AND r.status = :status " +
-            "GROUP BY r.reservationId")
+            "WHERE r.member.memberId = :memberId AND r.status = :status",
+            countQuery = "SELECT COUNT(r) FROM Reservation r " +
+                    "WHERE r.member.memberId = :memberId AND r.status = :status")
     Page<BorrowReservationDto> findBorrowReservationDtosByMemberId(@Param("memberId") Long memberId,
                                                                    @Param("status") ReservationStatus status,
                                                                    Pageable pageable);
 
+    // (member_id, status, created_at) 인덱스 + PK(reservation_id)로 seek 하기 때문에 offset/count 쿼리가 없다.
+    @Query("SELECT new com.ftiland.travelrental.reservation.dto.BorrowReservationDto(r.reservationId, p.mainImage, p.title, r.startDate, r.endDate, r.status, r.createdAt) " +
+            "FROM Reservation r JOIN r.product p " +
+            "WHERE r.member.memberId = :memberId AND r.status = :status " +
+            "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.reservationId > :reservationId)) " +
+            "ORDER BY r.createdAt ASC, r.reservationId ASC")
+    List<BorrowReservationDto> findBorrowReservationDtosByMemberIdAfter(@Param("memberId") Long memberId,
+                                                                        @Param("status") ReservationStatus status,
+                                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                                        @Param("reservationId") String reservationId,
+                                                                        Pageable pageable);
+
+    @Query("SELECT new com.ftiland.travelrental.reservation.dto.BorrowReservationDto(r.reservationId, p.mainImage, p.title, r.startDate, r.endDate, r.status, r.createdAt) " +
+            "FROM Reservation r JOIN r.product p " +
+            "WHERE r.member.memberId = :memberId AND r.status = :status " +
+            "ORDER BY r.createdAt ASC, r.reservationId ASC")
+    List<BorrowReservationDto> findBorrowReservationDtosByMemberIdFirst(@Param("memberId") Long memberId,
+                                                                        @Param("status") ReservationStatus status,
+                                                                        Pageable pageable);
+
+    // 조건부 UPDATE 한 번으로 "아직 평가하지 않은 본인 예약"인지 확인과 표시를 동시에 한다.
+    @Modifying
+    @Query("UPDATE Reservation r SET r.rated = true " +
+            "WHERE r.reservationId = :reservationId AND r.member.memberId = :memberId AND r.rated = false")
+    int markRated(@Param("reservationId") String reservationId, @Param("memberId") Long memberId);
+
+    // 승인된 예약과 기간이 겹치는 다른 요청들을 한 번에 취소한다. (endDate는 하루 뒤로 저장된 배타적 경계)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = :canceled " +
+            "WHERE r.product.productId = :productId AND r.status = :requested " +
+            "AND r.reservationId <> :reservationId " +
+            "AND r.startDate < :endDate AND r.endDate > :startDate")
+    int cancelOverlappingRequests(@Param("productId") String productId,
+                                  @Param("reservationId") String reservationId,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate,
+                                  @Param("requested") ReservationStatus requested,
+                                  @Param("canceled") ReservationStatus canceled);
+
+    boolean existsByReservationIdAndMemberMemberId(String reservationId, Long memberId);
+
+    // 예약이 해당 상품에 속하고 그 상품의 등록자가 memberId인지 한 번에 확인한다.
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r " +
+            "WHERE r.reservationId = :reservationId AND r.product.productId = :productId " +
+            "AND r.product.member.memberId = :memberId")
+    boolean existsLentReservation(@Param("reservationId") String reservationId,
+                                  @Param("productId") String productId,
+                                  @Param("memberId") Long memberId);
+
+    @Query("SELECT r.product.productId FROM Reservation r WHERE r.reservationId = :reservationId")
+    Optional<String> findProductIdByReservationId(@Param("reservationId") String reservationId);
+
     long countByMemberMemberId(Long memberId);
 
     long countByProductProductId(String productId);
@@ -0,0 +1,75 @@
+package com.ftiland.travelrental.reservation.service;
+
+import com.ftiland.travelrental.product.entity.Product;
+import com.ftiland.travelrental.product.service.ProductService;
+import com.ftiland.travelrental.reservation.dto.QuoteReservation;
+import com.ftiland.travelrental.reservation.dto.ReservedPeriodDto;
+import com.ftiland.travelrental.reservation.pricing.FeeCalculator;
+import com.ftiland.travelrental.reservation.pricing.PricingSnapshot;
+import com.ftiland.travelrental.reservation.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.ftiland.travelrental.reservation.status.ReservationStatus.CANCELED;
+
+// 견적 조회는 상품 락을 잡지 않으므로, 예약 변경이 커밋되기 전에 읽은 스냅샷이 evict 뒤에 put될 수 있다.
+// 이를 막기 위해 예약이 바뀔 때마다 상품별 버전을 새 값으로 바꾸고, 캐시를 채운 쪽은 put 전후의 버전을 비교한다.
+// put과 evict가 커밋 시점으로 미뤄지지 않도록(transactionAware) 두 메서드는 트랜잭션 밖에서 실행한다.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ReservationPricingService {
+
+    public static final String PRICING_CACHE = "reservationPricing";
+    public static final String PRICING_VERSION_CACHE = "reservationPricingVersion";
+
+    private final ReservationRepository reservationRepository;
+    private final ProductService productService;
+    private final CacheManager cacheManager;
+
+    // 캐시 히트 시에는 Product, Reservation 테이블을 조회하지 않는다.
+    // 읽는 동안 버전이 바뀌었으면 방금 넣은 스냅샷을 지운다. put 뒤에 바뀌었다면 쓰는 쪽이 버전을 바꾼 다음 지우므로
+    // 어느 순서로 겹쳐도 오래된 스냅샷이 TTL 동안 남지 않는다.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PricingSnapshot getSnapshot(String productId) {
+        Cache cache = cacheManager.getCache(PRICING_CACHE);
+        PricingSnapshot cached = cache.get(productId, PricingSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        String version = currentVersion(productId);
+        Product product = productService.findProduct(productId);
+        List<ReservedPeriodDto> periods = reservationRepository.findReservedPeriods(productId, CANCELED, LocalDate.now());
+        PricingSnapshot snapshot = PricingSnapshot.of(product, periods);
+
+        cache.put(productId, snapshot);
+        if (!Objects.equals(version, currentVersion(productId))) {
+            cache.evict(productId);
+        }
+        return snapshot;
+    }
+
+    // 예약 변경이 커밋된 뒤에 호출한다. 버전을 먼저 바꾸고 지워야 한다.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictSnapshot(String productId) {
+        cacheManager.getCache(PRICING_VERSION_CACHE).put(productId, UUID.randomUUID().toString());
+        cacheManager.getCache(PRICING_CACHE).evict(productId);
+        log.info("[ReservationPricingService] pricing snapshot evicted : {}", productId);
+    }
+
+    private String currentVersion(String productId) {
+        return cacheManager.getCache(PRICING_VERSION_CACHE).get(productId, String.class);
+    }
+}
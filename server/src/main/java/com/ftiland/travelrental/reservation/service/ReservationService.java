@@ -1,13 +1,17 @@
 package com.ftiland.travelrental.reservation.service;
 
+import com.ftiland.travelrental.common.KeysetCursor;
 import com.ftiland.travelrental.common.exception.BusinessLogicException;
-import com.ftiland.travelrental.common.utils.mail.MailService;
+import com.ftiland.travelrental.member.dto.MemberSummary;
 import com.ftiland.travelrental.member.entity.Member;
 import com.ftiland.travelrental.member.service.MemberService;
+import com.ftiland.travelrental.notification.service.NotificationService;
 import com.ftiland.travelrental.product.entity.Product;
 import com.ftiland.travelrental.product.service.ProductService;
 import com.ftiland.travelrental.reservation.dto.*;
 import com.ftiland.travelrental.reservation.entity.Reservation;
+import com.ftiland.travelrental.reservation.pricing.FeeCalculator;
+import com.ftiland.travelrental.reservation.pricing.PricingSnapshot;
 import com.ftiland.travelrental.reservation.repository.ReservationRepository;
 import com.ftiland.travelrental.reservation.status.ReservationStatus;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.Period;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -27,7 +31,7 @@ import java.util.stream.Collectors;
 
 import static com.ftiland.travelrental.common.exception.ExceptionCode.*;
 import static com.ftiland.travelrental.reservation.status.ReservationStatus.CANCELED;
-import static com.ftiland.travelrental.reservation.status.ReservationStatus.RESERVED;
+import static com.ftiland.travelrental.reservation.status.ReservationStatus.REQUESTED;
 
 
 @Service
@@ -39,17 +43,20 @@ public class ReservationService {
     private final ReservationRepository reservationRepository;
     private final MemberService memberService;
     private final ProductService productService;
-    private final MailService mailService;
+    private final NotificationService notificationService;
+    private final ReservationPricingService reservationPricingService;
 
     @Transactional
     public CreateReservation.Response createReservation(CreateReservation.Request request,
                                                         String productId,
                                                         Long memberId) {
-        Member member = memberService.findMember(memberId);
+        // 예약자는 FK와 알림용 이름만 필요하므로 요약 캐시와 프록시로 처리한다.
+        MemberSummary borrower = memberService.findMemberSummary(memberId);
+        Member member = memberService.getReference(memberId);
         Product product = productService.findProduct(productId);
 
         // 제품의 주인이 예약을 요청할 경우
-        if (Objects.equals(product.getMember().getMemberId(), member.getMemberId())) {
+        if (Objects.equals(product.getMember().getMemberId(), memberId)) {
             throw new BusinessLogicException(RESERVATION_NOT_ALLOWED);
         }
 
@@ -59,8 +66,8 @@ public class ReservationService {
         }
 
         // 예약 날짜가 최소 빌리는 기간보다 짧을 때
-        Period period = request.getStartDate().until(request.getEndDate());
-        if (product.getMinimumRentalPeriod() > period.getDays() + 1) {
+        int rentalDays = FeeCalculator.rentalDays(request.getStartDate().toEpochDay(), request.getEndDate().toEpochDay());
+        if (!FeeCalculator.meetsMinimumPeriod(product.getMinimumRentalPeriod(), rentalDays)) {
             throw new BusinessLogicException(WRONG_MINIMUM_PERIOD);
         }
 
@@ -70,8 +77,8 @@ public class ReservationService {
         }
 
         // 비용계산
-        int overDays = period.getDays() + 1 - product.getMinimumRentalPeriod();
-        int totalFee = product.getBaseFee() + overDays * product.getFeePerDay();
+        int totalFee = FeeCalculator.totalFee(product.getBaseFee(), product.getFeePerDay(),
+                product.getMinimumRentalPeriod(), rentalDays);
 
         Reservation reservation = Reservation.builder()
                 .reservationId(UUID.randomUUID().toString())
@@ -84,94 +91,93 @@ public class ReservationService {
 
         Reservation savedReservation = reservationRepository.save(reservation);
 
-//        mailService.sendMail(product.getMember().getEmail(), member.getDisplayName(), product.getTitle());
+        // 메일은 outbox에 적어두고 NotificationDispatcher가 비동기로 묶어서 보낸다.
+        notificationService.enqueueReservationRequest(product.getMember().getEmail(), borrower.getDisplayName(), product.getTitle());
 
         return CreateReservation.Response.from(savedReservation);
     }
 
+    public QuoteReservation.Response quoteReservations(String productId, QuoteReservation.Request request) {
+        PricingSnapshot snapshot = reservationPricingService.getSnapshot(productId);
+        long today = LocalDate.now().toEpochDay();
+
+        List<QuoteReservation.Quote> quotes = new ArrayList<>(request.getRanges().size());
+        for (QuoteReservation.DateRange range : request.getRanges()) {
+            long start = range.getStartDate().toEpochDay();
+            long end = range.getEndDate().toEpochDay();
+            int rentalDays = FeeCalculator.rentalDays(start, end);
+
+            // createReservation과 같은 기준으로 예약 가능 여부를 판단한다.
+            boolean valid = start <= end && start >= today
+                    && FeeCalculator.meetsMinimumPeriod(snapshot.getMinimumRentalPeriod(), rentalDays);
+            Integer totalFee = valid ? FeeCalculator.totalFee(snapshot.getBaseFee(), snapshot.getFeePerDay(),
+                    snapshot.getMinimumRentalPeriod(), rentalDays) : null;
+
+            quotes.add(QuoteReservation.Quote.builder()
+                    .startDate(range.getStartDate())
+                    .endDate(range.getEndDate())
+                    .totalFee(totalFee)
+                    .available(valid && !snapshot.isBooked(start, end))
+                    .build());
+        }
+
+        return new QuoteReservation.Response(productId, quotes);
+    }
+
     public boolean checkReservationDuplication(String productId, LocalDate startDate, LocalDate endDate) {
         return reservationRepository.existsByStartDateLessThanEqualAndEndDateGreaterThanEqualAndStatusNotAndProductProductId(startDate, endDate, CANCELED, productId);
     }
 
+    // 아래 승인/취소와 임대자 예약 목록의 소유자 확인은 컨트롤러의 @VerifyOwner가 먼저 한다.
     @Transactional
-    public CancelReservation.Response cancelReservationByBorrower(String reservationId, Long memberId) {
-        Member member = memberService.findMember(memberId);
+    public CancelReservation.Response cancelReservationByBorrower(String reservationId) {
         Reservation reservation = findReservation(reservationId);
 
-        validateOwner(reservation, member);
-
         // 예약상태가 Requested가 아니면 취소 불가능
-        if (reservation.getStatus() != ReservationStatus.REQUESTED) {
-            throw new BusinessLogicException(NOT_POSSIBLE_CANCEL);
-        }
-
-        reservation.setStatus(CANCELED);
+        reservation.cancel();
 
         return CancelReservation.Response.from(reservation);
     }
 
     @Transactional
-    public AcceptReservation.Response acceptReservationByLender(String reservationId, String productId, Long memberId) {
-        Member member = memberService.findMember(memberId);
+    public AcceptReservation.Response acceptReservationByLender(String reservationId, String productId) {
         Reservation reservation = findReservation(reservationId);
 
-        Product product = productService.findProduct(productId);
-
-        validateOwner(reservation, member, product);
+        // 예약상태가 Requested가 아니면 승인 불가능
+        reservation.accept();
 
-        reservation.setStatus(RESERVED);
+        // 승인된 기간과 겹치는 나머지 요청들은 자동으로 거절
+        int canceled = reservationRepository.cancelOverlappingRequests(productId, reservationId,
+                reservation.getStartDate(), reservation.getEndDate(), REQUESTED, CANCELED);
+        log.info("[ReservationService] {} overlapping requests canceled", canceled);
 
         return AcceptReservation.Response.from(reservation);
     }
 
     @Transactional
-    public CancelReservation.Response cancelReservationByLender(String reservationId, String productId, Long memberId) {
-        Member member = memberService.findMember(memberId);
+    public CancelReservation.Response cancelReservationByLender(String reservationId) {
         Reservation reservation = findReservation(reservationId);
 
-        Product product = productService.findProduct(productId);
-
-        validateOwner(reservation, member, product);
-
         // 예약상태가 Requested가 아니면 취소 불가능
-        if (reservation.getStatus() != ReservationStatus.REQUESTED) {
-            throw new BusinessLogicException(NOT_POSSIBLE_CANCEL);
-        }
-        reservation.setStatus(CANCELED);
+        reservation.cancel();
 
         return CancelReservation.Response.from(reservation);
     }
 
-    public Reservation findReservation(String reservationId) {
-        return reservationRepository.findById(reservationId)
+    public String findProductId(String reservationId) {
+        return reservationRepository.findProductIdByReservationId(reservationId)
                 .orElseThrow(() -> new BusinessLogicException(NOT_FOUND_RESERVATION));
     }
 
-    private void validateOwner(Reservation reservation, Member member, Product product) {
-        if (!Objects.equals(product.getMember().getMemberId(), member.getMemberId())) {
-            throw new BusinessLogicException(UNAUTHORIZED);
-        }
-        if (!Objects.equals(product.getProductId(), reservation.getProduct().getProductId())) {
-            throw new BusinessLogicException(UNAUTHORIZED);
-        }
-    }
-
-    private void validateOwner(Reservation reservation, Member member) {
-        if (!Objects.equals(reservation.getMember().getMemberId(), member.getMemberId())) {
-            throw new BusinessLogicException(UNAUTHORIZED);
-        }
-    }
-
-    private void validateOwner(Product product, Member member) {
-        if (!Objects.equals(product.getMember().getMemberId(), member.getMemberId())) {
-            throw new BusinessLogicException(UNAUTHORIZED);
-        }
+    public Reservation findReservation(String reservationId) {
+        return reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new BusinessLogicException(NOT_FOUND_RESERVATION));
     }
 
     public GetBorrowReservations getReservationByBorrower(Long memberId, ReservationStatus status,
                                                           int size, int page) {
         long start1 = System.currentTimeMillis();
-        memberService.findMember(memberId);
+        memberService.findMemberSummary(memberId);
         long end1 = System.currentTimeMillis();
         log.info("findMember total time = {}", end1 - start1);
 
@@ -185,19 +191,46 @@ public class ReservationService {
         return GetBorrowReservations.from(reservations);
     }
 
-    public GetLendReservations getReservationByLender(Long memberId, String productId,
+    public GetLendReservations getReservationByLender(String productId,
                                                       ReservationStatus status, int size, int page) {
-        Member member = memberService.findMember(memberId);
-        Product product = productService.findProduct(productId);
-
-        validateOwner(product, member);
-
         Page<LendReservationDto> reservations = reservationRepository
                 .findLendReservationDtosByProductId(productId, status, PageRequest.of(page, size));
 
         return GetLendReservations.from(reservations);
     }
 
+    public GetBorrowReservations getReservationByBorrower(Long memberId, ReservationStatus status,
+                                                          int size, String cursor) {
+        memberService.findMemberSummary(memberId);
+
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<BorrowReservationDto> reservations;
+        if (cursor == null) {
+            reservations = reservationRepository.findBorrowReservationDtosByMemberIdFirst(memberId, status, limit);
+        } else {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            reservations = reservationRepository.findBorrowReservationDtosByMemberIdAfter(memberId, status,
+                    keysetCursor.getCreatedAt(), keysetCursor.getId(), limit);
+        }
+
+        return GetBorrowReservations.of(reservations, size);
+    }
+
+    public GetLendReservations getReservationByLender(String productId,
+                                                      ReservationStatus status, int size, String cursor) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<LendReservationDto> reservations;
+        if (cursor == null) {
+            reservations = reservationRepository.findLendReservationDtosByProductIdFirst(productId, status, limit);
+        } else {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            reservations = reservationRepository.findLendReservationDtosByProductIdAfter(productId, status,
+                    keysetCursor.getCreatedAt(), keysetCursor.getId(), limit);
+        }
+
+        return GetLendReservations.of(reservations, size);
+    }
+
     public List<ReservationCalendarDto> getReservationByMonth(String productId, String date) {
         LocalDate startDate = LocalDate.parse(date + "-01");
         LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
@@ -220,14 +253,16 @@ public class ReservationService {
 
     @Transactional
     public void rateReservation(String reservationId, Long memberId, int score) {
-        Member member = memberService.findMember(memberId);
-        Reservation reservation = findReservation(reservationId);
-
-        validateOwner(reservation, member);
+        if (reservationRepository.markRated(reservationId, memberId) == 0) {
+            // 실패한 경우에만 원인을 구분하기 위해 조회한다.
+            Reservation reservation = findReservation(reservationId);
+            if (!Objects.equals(reservation.getMember().getMemberId(), memberId)) {
+                throw new BusinessLogicException(UNAUTHORIZED);
+            }
+            throw new BusinessLogicException(ALREADY_RATED);
+        }
 
-        Product product = reservation.getProduct();
-        product.setTotalRateCount(product.getTotalRateCount() + 1);
-        product.setTotalRateScore(product.getTotalRateScore() + score);
+        productService.increaseRate(findProductId(reservationId), score);
     }
 
     public long countAllReservation(Long memberId) {
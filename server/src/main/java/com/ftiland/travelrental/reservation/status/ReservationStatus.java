@@ -3,5 +3,20 @@ package com.ftiland.travelrental.reservation.status;
 
 
 public enum ReservationStatus {
-    REQUESTED, RESERVED, INUSE, COMPLETED, CANCELED
+    REQUESTED, RESERVED, INUSE, COMPLETED, CANCELED;
+
+    // 예약 상태 전이 규칙
+    // REQUESTED -> RESERVED | CANCELED, RESERVED -> INUSE, INUSE -> COMPLETED
+    public boolean canTransitionTo(ReservationStatus next) {
+        switch (this) {
+            case REQUESTED:
+                return next == RESERVED || next == CANCELED;
+            case RESERVED:
+                return next == INUSE;
+            case INUSE:
+                return next == COMPLETED;
+            default:
+                return false;
+        }
+    }
 }
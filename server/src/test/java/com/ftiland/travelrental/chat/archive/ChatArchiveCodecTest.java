@@ -0,0 +1,60 @@
+package com.ftiland.travelrental.chat.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatArchiveCodecTest {
+
+    private final ChatArchiveCodec codec = new ChatArchiveCodec(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    @DisplayName("gzip으로 압축한 세그먼트를 seq까지 그대로 복원한다")
+    void roundTrip() {
+        LocalDateTime createAt = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_000_000);
+        List<ArchivedChatMessage> messages = List.of(
+                new ArchivedChatMessage("m1", "hello", 1L, createAt, 41L),
+                new ArchivedChatMessage("m2", "안녕하세요", 2L, createAt.plusSeconds(1), 42L),
+                // seq 도입 전 메시지
+                new ArchivedChatMessage("m0", "old", 1L, createAt.minusDays(1), null));
+
+        byte[] payload = codec.encode(messages);
+        List<ArchivedChatMessage> decoded = codec.decode(payload);
+
+        assertThat(payload[0]).isEqualTo((byte) 0x1f);
+        assertThat(payload[1]).isEqualTo((byte) 0x8b);
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator().isEqualTo(messages);
+    }
+
+    @Test
+    @DisplayName("seq 필드가 없던 이전 세그먼트는 seq가 null로 읽힌다")
+    void decodesSegmentWithoutSeq() throws IOException {
+        String json = "[{\"messageId\":\"m1\",\"content\":\"hello\",\"senderId\":1,\"createAt\":\"2024-01-01T10:00:00\"}]";
+
+        List<ArchivedChatMessage> decoded = codec.decode(gzip(json));
+
+        assertThat(decoded).hasSize(1);
+        assertThat(decoded.get(0).getMessageId()).isEqualTo("m1");
+        assertThat(decoded.get(0).getCreateAt()).isEqualTo(LocalDateTime.of(2024, 1, 1, 10, 0));
+        assertThat(decoded.get(0).getSeq()).isNull();
+    }
+
+    private byte[] gzip(String json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,162 @@
+package com.ftiland.travelrental.chat.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ftiland.travelrental.chat.dto.ChatHistory;
+import com.ftiland.travelrental.chat.dto.ChatHistoryDto;
+import com.ftiland.travelrental.chat.entity.ChatMessageArchive;
+import com.ftiland.travelrental.chat.journal.ChatMessageJournal;
+import com.ftiland.travelrental.chat.repository.ChatInboxRepository;
+import com.ftiland.travelrental.chat.repository.ChatMessageArchiveRepository;
+import com.ftiland.travelrental.chat.repository.ChatMessageRepository;
+import com.ftiland.travelrental.chat.repository.ChatRoomMembersRepository;
+import com.ftiland.travelrental.chat.repository.ChatRoomRepository;
+import com.ftiland.travelrental.chat.service.ChatEntityService;
+import com.ftiland.travelrental.member.entity.Member;
+import com.ftiland.travelrental.member.service.MemberService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ChatArchiveServiceTest {
+
+    private static final String ROOM_ID = "room";
+    private static final LocalDateTime DAY1 = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime DAY2 = DAY1.plusDays(1);
+    private static final LocalDateTime DAY3 = DAY1.plusDays(2);
+    // 최신순 정렬: (createdAt DESC, messageId DESC)
+    private static final Comparator<ChatHistoryDto> NEWEST_FIRST = Comparator.comparing(ChatHistoryDto::getCreatedAt)
+            .thenComparing(ChatHistoryDto::getMessageId).reversed();
+
+    private final ChatArchiveCodec codec = new ChatArchiveCodec(new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+    private final ChatMessageArchiveRepository chatMessageArchiveRepository = mock(ChatMessageArchiveRepository.class);
+
+    // 같은 시각의 메시지가 hot 테이블, 세그먼트 안, 세그먼트 경계마다 있다.
+    private final List<ChatHistoryDto> hot = List.of(
+            history("h1", DAY3.plusHours(9)), history("h2", DAY3.plusHours(9)), history("h3", DAY3.plusHours(10)));
+    private final List<ChatMessageArchive> segments = new ArrayList<>();
+
+    private ChatArchiveService chatArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        segments.add(segment(DAY1, archived("a1", DAY1.plusHours(10)), archived("a2", DAY1.plusHours(10)), archived("a3", DAY1.plusHours(11))));
+        segments.add(segment(DAY2, archived("b1", DAY2.plusHours(9)), archived("b2", DAY2.plusHours(9)), archived("b3", DAY2.plusHours(10))));
+
+        given(chatMessageArchiveRepository.existsByChatroomId(ROOM_ID)).willReturn(true);
+        given(chatMessageArchiveRepository.findLatest(eq(ROOM_ID), any())).willAnswer(invocation ->
+                page(segments, invocation.getArgument(1)));
+        given(chatMessageArchiveRepository.findBefore(eq(ROOM_ID), any(), any())).willAnswer(invocation -> {
+            LocalDateTime createAt = invocation.getArgument(1);
+            return page(segments.stream().filter(s -> !s.getFirstCreateAt().isAfter(createAt)).collect(Collectors.toList()),
+                    invocation.getArgument(2));
+        });
+
+        chatArchiveService = new ChatArchiveService(chatMessageRepository, chatMessageArchiveRepository, codec);
+        ReflectionTestUtils.setField(chatArchiveService, "enabled", true);
+    }
+
+    @Test
+    @DisplayName("커서와 같은 시각의 메시지는 id가 작은 것만 읽고, 세그먼트 경계를 넘어 이어서 읽는다")
+    void findBeforeCursorBoundary() {
+        List<ChatHistoryDto> messages = chatArchiveService.findBefore(ROOM_ID, DAY2.plusHours(9), "b2", 3);
+
+        assertThat(messages).extracting(ChatHistoryDto::getMessageId).containsExactly("b1", "a3", "a2");
+        assertThat(chatArchiveService.findBefore(ROOM_ID, null, null, 2))
+                .extracting(ChatHistoryDto::getMessageId).containsExactly("b3", "b2");
+        assertThat(chatArchiveService.findBefore(ROOM_ID, DAY1.plusHours(10), "a1", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("hot 테이블에서 아카이브로 넘어가며 페이지를 넘겨도 빠지거나 겹치는 메시지가 없다")
+    void pagesAcrossHotTableAndArchive() {
+        given(chatMessageRepository.findHistoryFirst(eq(ROOM_ID), any())).willAnswer(invocation ->
+                hot.stream().sorted(NEWEST_FIRST).limit(((Pageable) invocation.getArgument(1)).getPageSize())
+                        .collect(Collectors.toList()));
+        given(chatMessageRepository.findHistoryBefore(eq(ROOM_ID), any(), any(), any())).willAnswer(invocation -> {
+            ChatHistoryDto cursor = history(invocation.getArgument(2), invocation.getArgument(1));
+            return hot.stream().filter(m -> NEWEST_FIRST.compare(m, cursor) > 0).sorted(NEWEST_FIRST)
+                    .limit(((Pageable) invocation.getArgument(3)).getPageSize())
+                    .collect(Collectors.toList());
+        });
+        ChatEntityService chatEntityService = chatEntityService();
+
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 10; page++) {
+            ChatHistory history = chatEntityService.findChatHistory(ROOM_ID, 1L, 2, cursor);
+            // 한 페이지 안은 오래된 순서이므로 뒤집어서 최신순으로 이어 붙인다.
+            List<ChatHistoryDto> messages = new ArrayList<>(history.getMessages());
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                ids.add(messages.get(i).getMessageId());
+            }
+            if (!history.getCursorInfo().isHasNext()) {
+                break;
+            }
+            cursor = history.getCursorInfo().getNextCursor();
+        }
+
+        assertThat(ids).containsExactly("h3", "h2", "h1", "b3", "b2", "b1", "a3", "a2", "a1");
+    }
+
+    private ChatEntityService chatEntityService() {
+        ChatRoomMembersRepository chatRoomMembersRepository = mock(ChatRoomMembersRepository.class);
+        given(chatRoomMembersRepository.findByChatroomIdAndMemberId(eq(ROOM_ID), anyLong())).willReturn(Optional.of(new Member()));
+
+        ChatEntityService chatEntityService = new ChatEntityService();
+        chatEntityService.ChatService(mock(ChatRoomRepository.class), chatMessageRepository, mock(MemberService.class),
+                chatRoomMembersRepository, mock(ChatMessageJournal.class), mock(ChatInboxRepository.class), chatArchiveService);
+        return chatEntityService;
+    }
+
+    // findLatest/findBefore의 정렬과 페이지를 흉내 낸다.
+    private List<ChatMessageArchive> page(List<ChatMessageArchive> candidates, Pageable pageable) {
+        return candidates.stream()
+                .sorted(Comparator.comparing(ChatMessageArchive::getLastCreateAt)
+                        .thenComparing(ChatMessageArchive::getLastMessageId).reversed())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    private ChatMessageArchive segment(LocalDateTime day, ArchivedChatMessage... messages) {
+        List<ArchivedChatMessage> list = List.of(messages);
+        ArchivedChatMessage last = list.get(list.size() - 1);
+        return ChatMessageArchive.builder()
+                .archiveId("segment-" + day.toLocalDate())
+                .chatroomId(ROOM_ID)
+                .bucket(LocalDate.from(day))
+                .firstCreateAt(list.get(0).getCreateAt())
+                .lastCreateAt(last.getCreateAt())
+                .lastMessageId(last.getMessageId())
+                .messageCount(list.size())
+                .payload(codec.encode(list))
+                .build();
+    }
+
+    private ArchivedChatMessage archived(String messageId, LocalDateTime createAt) {
+        return new ArchivedChatMessage(messageId, messageId, 1L, createAt, null);
+    }
+
+    private ChatHistoryDto history(String messageId, LocalDateTime createdAt) {
+        return new ChatHistoryDto(messageId, messageId, 1L, createdAt);
+    }
+}
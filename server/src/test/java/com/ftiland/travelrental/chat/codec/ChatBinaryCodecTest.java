@@ -0,0 +1,92 @@
+package com.ftiland.travelrental.chat.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatBinaryCodecTest {
+
+    private static final String ROOM_ID = "3f2b9c1e-6a5d-4e8f-9b1a-7c2d4e6f8a0b";
+
+    @Test
+    @DisplayName("인코딩한 메시지를 그대로 복원한다")
+    void roundTrip() {
+        ChatMessageDto talk = talk("안녕하세요, 내일 대여 가능할까요?");
+
+        ChatMessageDto decoded = ChatBinaryCodec.decode(new ChatBinaryCodec.RoomTable(),
+                ChatBinaryCodec.encode(new ChatBinaryCodec.RoomTable(), talk));
+
+        assertThat(decoded.getType()).isEqualTo(ChatMessageDto.MessageType.TALK);
+        assertThat(decoded.getRoomId()).isEqualTo(ROOM_ID);
+        assertThat(decoded.getSenderId()).isEqualTo(1234L);
+        assertThat(decoded.getSeq()).isEqualTo(98765L);
+        assertThat(decoded.getContent()).isEqualTo(talk.getContent());
+        assertThat(decoded.getStatus()).isNull();
+
+        ChatMessageDto presence = ChatBinaryCodec.decode(new ChatBinaryCodec.RoomTable(),
+                ChatBinaryCodec.encode(new ChatBinaryCodec.RoomTable(), ChatMessageDto.presence(ROOM_ID, 7L, ChatMessageDto.OFFLINE)));
+
+        assertThat(presence.getType()).isEqualTo(ChatMessageDto.MessageType.PRESENCE);
+        assertThat(presence.getStatus()).isEqualTo(ChatMessageDto.OFFLINE);
+        assertThat(presence.getContent()).isNull();
+    }
+
+    @Test
+    @DisplayName("같은 세션에서 두 번째 메시지부터는 방 id 대신 번호를 보낸다")
+    void internsRoomIdAfterFirstFrame() {
+        ChatBinaryCodec.RoomTable sender = new ChatBinaryCodec.RoomTable();
+        ChatBinaryCodec.RoomTable receiver = new ChatBinaryCodec.RoomTable();
+        ChatMessageDto talk = talk("hi");
+
+        ByteBuffer first = ChatBinaryCodec.encode(sender, talk);
+        ByteBuffer second = ChatBinaryCodec.encode(sender, talk);
+
+        assertThat(first.remaining() - second.remaining()).isEqualTo(ROOM_ID.length() + 1);
+        assertThat(ChatBinaryCodec.decode(receiver, first).getRoomId()).isEqualTo(ROOM_ID);
+        assertThat(ChatBinaryCodec.decode(receiver, second).getRoomId()).isEqualTo(ROOM_ID);
+    }
+
+    @Test
+    @DisplayName("바이너리 프레임은 같은 메시지의 JSON보다 작다")
+    void smallerThanJson() throws Exception {
+        ChatBinaryCodec.RoomTable rooms = new ChatBinaryCodec.RoomTable();
+        ChatMessageDto talk = talk("네 가능합니다");
+        int json = new ObjectMapper().writeValueAsString(talk).getBytes(StandardCharsets.UTF_8).length;
+
+        int firstFrame = ChatBinaryCodec.encode(rooms, talk).remaining();
+        int internedFrame = ChatBinaryCodec.encode(rooms, talk).remaining();
+
+        assertThat(firstFrame).isLessThan(json);
+        assertThat(internedFrame).isLessThan(json / 3);
+    }
+
+    @Test
+    @DisplayName("잘린 프레임이나 모르는 방 번호는 거부한다")
+    void rejectsMalformedFrame() {
+        ByteBuffer frame = ChatBinaryCodec.encode(new ChatBinaryCodec.RoomTable(), talk("hello"));
+        byte[] truncated = Arrays.copyOf(frame.array(), frame.remaining() - 2);
+
+        assertThatThrownBy(() -> ChatBinaryCodec.decode(new ChatBinaryCodec.RoomTable(), ByteBuffer.wrap(truncated)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ChatBinaryCodec.decode(new ChatBinaryCodec.RoomTable(), ByteBuffer.wrap(new byte[]{5, 1, 1, 0})))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ChatMessageDto talk(String content) {
+        ChatMessageDto message = new ChatMessageDto();
+        message.setType(ChatMessageDto.MessageType.TALK);
+        message.setRoomId(ROOM_ID);
+        message.setSenderId(1234L);
+        message.setContent(content);
+        message.setSeq(98765L);
+        return message;
+    }
+}
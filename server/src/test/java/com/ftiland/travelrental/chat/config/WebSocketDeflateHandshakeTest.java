@@ -0,0 +1,95 @@
+package com.ftiland.travelrental.chat.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 채팅 핸들러와 같은 Tomcat + Spring 핸드셰이크 경로에서 permessage-deflate가 협상되는지 확인한다.
+// 전체 애플리케이션은 DB와 redis가 필요하므로 웹 서버와 WebSocket 설정만 띄운다.
+@SpringBootTest(classes = WebSocketDeflateHandshakeTest.HandshakeConfig.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebSocketDeflateHandshakeTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("클라이언트가 요청하면 핸드셰이크 응답에 permessage-deflate가 들어간다")
+    void negotiatesDeflate() throws IOException {
+        Map<String, String> headers = handshake("Sec-WebSocket-Extensions: permessage-deflate; client_max_window_bits\r\n");
+
+        assertThat(headers.get(":status")).contains("101");
+        assertThat(headers.get("sec-websocket-extensions")).startsWith("permessage-deflate");
+    }
+
+    @Test
+    @DisplayName("요청하지 않으면 압축 없이 연결된다")
+    void withoutRequest() throws IOException {
+        Map<String, String> headers = handshake("");
+
+        assertThat(headers.get(":status")).contains("101");
+        assertThat(headers).doesNotContainKey("sec-websocket-extensions");
+    }
+
+    // 응답 헤더 이름은 소문자로, 상태 줄은 ":status"로 돌려준다.
+    private Map<String, String> handshake(String extraHeaders) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(5000);
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            out.write("GET /ws/chat HTTP/1.1\r\n" +
+                    "Host: localhost:" + port + "\r\n" +
+                    "Upgrade: websocket\r\n" +
+                    "Connection: Upgrade\r\n" +
+                    "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n" +
+                    "Sec-WebSocket-Version: 13\r\n" +
+                    extraHeaders +
+                    "\r\n");
+            out.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Map<String, String> headers = new HashMap<>();
+            headers.put(":status", in.readLine());
+            String line;
+            while ((line = in.readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+            return headers;
+        }
+    }
+
+    @Configuration
+    @EnableWebSocket
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class})
+    static class HandshakeConfig implements WebSocketConfigurer {
+
+        @Override
+        public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+            registry.addHandler(new TextWebSocketHandler(), "/ws/chat");
+        }
+    }
+}
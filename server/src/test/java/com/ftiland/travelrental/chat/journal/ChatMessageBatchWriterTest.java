@@ -0,0 +1,116 @@
+package com.ftiland.travelrental.chat.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatMessageBatchWriterTest {
+
+    private static final String ROOM_ID = "room";
+
+    @Test
+    @DisplayName("배치 INSERT가 실패하면 한 건씩 다시 넣고, 중복 id와 실패한 메시지는 한 번만 세거나 버린다")
+    void fallsBackOneByOne() {
+        FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate();
+        // 방이 지워져 FK 오류가 나는 메시지
+        jdbcTemplate.rejected.add("m4");
+        ChatMessageBatchWriter writer = new ChatMessageBatchWriter(jdbcTemplate);
+
+        // 로그를 다시 읽다가 같은 메시지가 두 번 들어온 경우
+        writer.write(List.of(entry("m1", 1), entry("m2", 2), entry("m2", 2), entry("m3", 3), entry("m4", 4)));
+
+        assertThat(jdbcTemplate.stored).containsExactly("m1", "m2", "m3");
+        // 저장된 세 건만 안 읽은 수에 더한다.
+        assertThat(jdbcTemplate.unreadIncrements()).containsExactly(3);
+        // 버린 m4가 아니라 m3이 방의 마지막 메시지가 된다.
+        assertThat(jdbcTemplate.lastMessageIds()).containsExactly("m3");
+    }
+
+    @Test
+    @DisplayName("이미 저장된 메시지는 INSERT 전에 걸러서 안 읽은 수를 다시 늘리지 않는다")
+    void skipsStoredMessages() {
+        FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate();
+        jdbcTemplate.stored.add("m1");
+        ChatMessageBatchWriter writer = new ChatMessageBatchWriter(jdbcTemplate);
+
+        writer.write(List.of(entry("m1", 1), entry("m2", 2)));
+
+        assertThat(jdbcTemplate.failedInserts).isZero();
+        assertThat(jdbcTemplate.unreadIncrements()).containsExactly(1);
+    }
+
+    private ChatJournalEntry entry(String messageId, long seq) {
+        return new ChatJournalEntry(messageId, ROOM_ID, 1L, "hello", LocalDateTime.now(), seq);
+    }
+
+    // chat_message 테이블만 흉내 낸다. 배치 INSERT는 실패한 행 앞까지만 들어간 채로 예외를 던진다.
+    private static class FakeJdbcTemplate extends JdbcTemplate {
+
+        private final Set<String> stored = new LinkedHashSet<>();
+        private final Set<String> rejected = new LinkedHashSet<>();
+        private final Map<String, List<Object>> updates = new HashMap<>();
+        private int failedInserts;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            return (List<T>) Arrays.stream(args).filter(stored::contains).collect(Collectors.toList());
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize, ParameterizedPreparedStatementSetter<T> pss) {
+            if (!sql.startsWith("INSERT INTO chat_message")) {
+                updates.computeIfAbsent(sql, k -> new ArrayList<>()).addAll(batchArgs);
+                return new int[0][];
+            }
+            for (T arg : batchArgs) {
+                String messageId = ((ChatJournalEntry) arg).getMessageId();
+                if (rejected.contains(messageId)) {
+                    failedInserts++;
+                    throw new DataIntegrityViolationException("fk : " + messageId);
+                }
+                if (!stored.add(messageId)) {
+                    failedInserts++;
+                    throw new DuplicateKeyException("duplicate : " + messageId);
+                }
+            }
+            return new int[0][];
+        }
+
+        // (방, 보낸 사람)마다 늘린 안 읽은 수
+        private List<Integer> unreadIncrements() {
+            return updatesOf("unread_count = unread_count").stream()
+                    .map(e -> (Integer) ((Map.Entry<?, ?>) e).getValue())
+                    .collect(Collectors.toList());
+        }
+
+        private List<String> lastMessageIds() {
+            return updatesOf("UPDATE chat_room").stream()
+                    .map(e -> ((ChatJournalEntry) e).getMessageId())
+                    .collect(Collectors.toList());
+        }
+
+        private List<Object> updatesOf(String sqlFragment) {
+            return updates.entrySet().stream()
+                    .filter(e -> e.getKey().contains(sqlFragment))
+                    .flatMap(e -> e.getValue().stream())
+                    .collect(Collectors.toList());
+        }
+    }
+}
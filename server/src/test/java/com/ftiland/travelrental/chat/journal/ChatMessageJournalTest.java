@@ -0,0 +1,176 @@
+package com.ftiland.travelrental.chat.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+import com.ftiland.travelrental.common.exception.ExceptionCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ChatMessageJournalTest {
+
+    private static final String ROOM_ID = "room";
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ChatMessageBatchWriter batchWriter = mock(ChatMessageBatchWriter.class);
+    // batchWriter.write로 넘어온 메시지 seq. (flusher는 배치 리스트를 재사용하므로 복사해 둔다)
+    private final List<Long> written = Collections.synchronizedList(new ArrayList<>());
+    // 열려 있는 동안 write가 끝나지 않는다.
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    private ChatMessageJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        if (journal != null) {
+            ReflectionTestUtils.invokeMethod(journal, "stop");
+        }
+    }
+
+    @Test
+    @DisplayName("segment 크기를 넘으면 새 파일에 쓰고, 모두 저장된 파일은 지운다")
+    void rotatesAndDeletesSegments() throws Exception {
+        blockWrites();
+        journal = start(100, 1000, 1);
+
+        for (long seq = 1; seq <= 3; seq++) {
+            journal.append(ROOM_ID, "hello", 1L, seq);
+        }
+        // 저장이 막혀 있으므로 다 쓴 파일 3개와 지금 쓰는 파일 1개가 남아 있다.
+        assertThat(segmentFiles()).containsExactly("messages.log.000000", "messages.log.000001",
+                "messages.log.000002", "messages.log.000003");
+
+        gate.countDown();
+        await(() -> written.size() == 3);
+        await(() -> segmentFiles().size() == 1);
+
+        assertThat(segmentFiles()).containsExactly("messages.log.000003");
+        assertThat(written).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("기동 시 이전 로그를 나누기 전 파일부터 segment 순서대로 모두 다시 저장하고 지운다")
+    void replaysAllSegmentsOnStart() throws Exception {
+        recordWrites();
+        writeLog("messages.log", entry(1), entry(2));
+        writeLog("messages.log.000000", entry(3));
+        // 죽는 순간 쓰다 만 줄은 건너뛴다.
+        Files.write(dir.resolve("messages.log.000001"),
+                (objectMapper.writeValueAsString(entry(4)) + "\n{\"messageId\":\"broken").getBytes(StandardCharsets.UTF_8));
+
+        journal = start(100, 1000, 1024);
+
+        assertThat(written).containsExactly(1L, 2L, 3L, 4L);
+        // 남는 것은 새로 연 빈 파일뿐이다.
+        assertThat(segmentFiles()).containsExactly("messages.log.000000");
+        assertThat(Files.size(dir.resolve("messages.log.000000"))).isZero();
+    }
+
+    @Test
+    @DisplayName("저장 대기 중인 메시지가 capacity만큼 차면 offer-timeout 뒤 CHAT_UNAVAILABLE로 거절한다")
+    void rejectsWhenFull() throws Exception {
+        blockWrites();
+        journal = start(2, 50, 1024);
+
+        journal.append(ROOM_ID, "first", 1L, 1);
+        journal.append(ROOM_ID, "second", 1L, 2);
+
+        assertThatThrownBy(() -> journal.append(ROOM_ID, "third", 1L, 3))
+                .isInstanceOf(BusinessLogicException.class)
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.CHAT_UNAVAILABLE);
+        // 거절한 메시지는 재전송용 대기 목록에도 없다.
+        assertThat(journal.pendingAfter(ROOM_ID, 0)).extracting(ChatJournalEntry::getSeq).containsExactly(1L, 2L);
+
+        gate.countDown();
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(journal, "capacity");
+        await(() -> permits.availablePermits() == 2);
+        journal.append(ROOM_ID, "third", 1L, 3);
+        await(() -> written.size() == 3);
+
+        assertThat(written).containsExactly(1L, 2L, 3L);
+        await(() -> journal.pendingAfter(ROOM_ID, 0).isEmpty());
+    }
+
+    private ChatMessageJournal start(int capacity, long offerTimeoutMillis, long segmentBytes) {
+        ChatMessageJournal journal = new ChatMessageJournal(batchWriter, objectMapper, new SimpleMeterRegistry(),
+                capacity, offerTimeoutMillis, 200, 10, segmentBytes, dir.resolve("messages.log").toString());
+        ReflectionTestUtils.invokeMethod(journal, "start");
+        return journal;
+    }
+
+    private void recordWrites() {
+        doAnswer(invocation -> {
+            List<ChatJournalEntry> batch = invocation.getArgument(0);
+            batch.forEach(entry -> written.add(entry.getSeq()));
+            return null;
+        }).when(batchWriter).write(anyList());
+    }
+
+    private void blockWrites() {
+        doAnswer(invocation -> {
+            gate.await();
+            List<ChatJournalEntry> batch = invocation.getArgument(0);
+            batch.forEach(entry -> written.add(entry.getSeq()));
+            return null;
+        }).when(batchWriter).write(anyList());
+    }
+
+    private ChatJournalEntry entry(long seq) {
+        return new ChatJournalEntry("message-" + seq, ROOM_ID, 1L, "hello", LocalDateTime.now(), seq);
+    }
+
+    private void writeLog(String fileName, ChatJournalEntry... entries) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (ChatJournalEntry entry : entries) {
+            lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        Files.write(dir.resolve(fileName), lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> segmentFiles() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
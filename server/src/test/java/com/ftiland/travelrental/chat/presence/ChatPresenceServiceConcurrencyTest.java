@@ -0,0 +1,78 @@
+package com.ftiland.travelrental.chat.presence;
+
+import com.ftiland.travelrental.chat.broker.ChatBroker;
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatPresenceServiceConcurrencyTest {
+
+    private static final String ROOM_ID = "room";
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 5_000;
+
+    @Test
+    @DisplayName("빈 방이 지워지는 동시에 들어온 접속도 잃지 않고, ONLINE/OFFLINE 알림 수가 맞는다")
+    void touchAndLeaveConcurrently() throws Exception {
+        // 회원마다 (ONLINE 수 - OFFLINE 수)
+        ConcurrentMap<Long, AtomicInteger> balance = new ConcurrentHashMap<>();
+        ChatPresenceService presenceService = new ChatPresenceService(new ChatBroker() {
+            @Override
+            public void publish(String roomId, ChatMessageDto message) {
+                int delta = ChatMessageDto.ONLINE.equals(message.getStatus()) ? 1 : -1;
+                balance.computeIfAbsent(message.getSenderId(), id -> new AtomicInteger()).addAndGet(delta);
+            }
+
+            @Override
+            public void subscribe(String roomId) {
+            }
+
+            @Override
+            public void unsubscribe(String roomId) {
+            }
+        }, 60_000, 1_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long memberId = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    presenceService.touch(ROOM_ID, memberId, "session-" + memberId);
+                    presenceService.leave(ROOM_ID, memberId, "session-" + memberId);
+                }
+                // 마지막 접속은 남아 있어야 한다.
+                presenceService.touch(ROOM_ID, memberId, "session-" + memberId);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(presenceService.onlineMembers(ROOM_ID)).containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(balance.values()).allMatch(count -> count.get() == 1);
+
+        for (long memberId = 0; memberId < THREADS; memberId++) {
+            presenceService.leave(ROOM_ID, memberId, "session-" + memberId);
+        }
+        assertThat(presenceService.onlineMembers(ROOM_ID)).isEmpty();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ftiland.travelrental.chat.sequence;
+
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatRecentMessagesTest {
+
+    private static final String ROOM_ID = "room";
+
+    @Test
+    @DisplayName("순서가 뒤바뀌어 들어와도 요청한 seq 이후를 번호 순서대로 돌려준다")
+    void sinceInSeqOrder() {
+        ChatRecentMessages recent = new ChatRecentMessages(8);
+        recent.append(talk(1));
+        recent.append(talk(3));
+        recent.append(talk(2));
+
+        List<ChatMessageDto> missed = recent.since(ROOM_ID, 1);
+
+        assertThat(missed).extracting(ChatMessageDto::getSeq).containsExactly(2L, 3L);
+        assertThat(recent.since(ROOM_ID, 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("버퍼에서 밀려났거나 빠진 번호가 있으면 null을 돌려준다")
+    void gapOutsideBuffer() {
+        ChatRecentMessages recent = new ChatRecentMessages(4);
+        for (long seq = 1; seq <= 10; seq++) {
+            recent.append(talk(seq));
+        }
+
+        assertThat(recent.since(ROOM_ID, 2)).isNull();
+        assertThat(recent.since(ROOM_ID, 6)).extracting(ChatMessageDto::getSeq).containsExactly(7L, 8L, 9L, 10L);
+
+        recent.append(talk(12));
+        assertThat(recent.since(ROOM_ID, 10)).isNull();
+        assertThat(recent.since("other", 0)).isNull();
+        assertThat(recent.lastSeq(ROOM_ID)).isEqualTo(12L);
+        assertThat(recent.lastSeq("other")).isZero();
+    }
+
+    private ChatMessageDto talk(long seq) {
+        ChatMessageDto message = new ChatMessageDto();
+        message.setType(ChatMessageDto.MessageType.TALK);
+        message.setRoomId(ROOM_ID);
+        message.setSeq(seq);
+        return message;
+    }
+}
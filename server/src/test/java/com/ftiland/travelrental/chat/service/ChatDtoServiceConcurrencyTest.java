@@ -0,0 +1,79 @@
+package com.ftiland.travelrental.chat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ftiland.travelrental.chat.broker.ChatBroker;
+import com.ftiland.travelrental.chat.broker.LocalChatBroker;
+import com.ftiland.travelrental.chat.dto.ChatMessageDto;
+import com.ftiland.travelrental.chat.dto.ChatRoomDto;
+import com.ftiland.travelrental.chat.session.ChatOutboundSessions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+class ChatDtoServiceConcurrencyTest {
+
+    private static final String ROOM_ID = "room";
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 2_000;
+
+    @Test
+    @DisplayName("입장/퇴장과 브로드캐스트가 동시에 일어나도 세션을 잃지 않고 빈 방은 제거된다")
+    void joinLeaveAndBroadcastConcurrently() throws Exception {
+        ChatDtoService chatDtoService = new ChatDtoService(new ChatOutboundSessions(new SimpleMeterRegistry(), 5000, 512 * 1024), new ObjectMapper());
+        ChatEntityService chatEntityService = mock(ChatEntityService.class, withSettings().stubOnly());
+        ChatBroker chatBroker = new LocalChatBroker(chatDtoService, new ObjectMapper());
+
+        ChatMessageDto talk = new ChatMessageDto();
+        talk.setType(ChatMessageDto.MessageType.TALK);
+        talk.setRoomId(ROOM_ID);
+        talk.setContent("hello");
+
+        // 끝까지 남아있는 세션
+        WebSocketSession resident = session();
+        chatDtoService.joinRoom(ROOM_ID, "name", resident);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean broadcaster = t % 4 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    if (broadcaster) {
+                        ChatRoomDto room = chatDtoService.findRoomById(ROOM_ID);
+                        room.handlerActions(resident, talk, chatDtoService, chatEntityService, chatBroker);
+                    } else {
+                        WebSocketSession session = session();
+                        chatDtoService.joinRoom(ROOM_ID, "name", session);
+                        chatDtoService.leaveRoom(ROOM_ID, session);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(chatDtoService.findRoomById(ROOM_ID).getSessions()).containsExactly(resident);
+
+        chatDtoService.leaveRoom(ROOM_ID, resident);
+        assertThat(chatDtoService.findUseChatRoom(ROOM_ID)).isFalse();
+    }
+
+    private WebSocketSession session() {
+        return mock(WebSocketSession.class, withSettings().stubOnly());
+    }
+}
@@ -0,0 +1,49 @@
+package com.ftiland.travelrental.chat.session;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimerWheelTest {
+
+    @Test
+    @DisplayName("만료 tick이 된 항목만 꺼내고, 한 바퀴 이상 남은 항목은 다음 바퀴까지 남겨둔다")
+    void expiresOnDeadlineTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(8);
+        wheel.schedule("a", 3);
+        wheel.schedule("b", 11);
+        List<String> expired = new ArrayList<>();
+
+        for (long tick = 1; tick <= 10; tick++) {
+            wheel.expire(tick, expired::add);
+        }
+        assertThat(expired).containsExactly("a");
+
+        wheel.expire(11, expired::add);
+        assertThat(expired).containsExactly("a", "b");
+    }
+
+    @Test
+    @DisplayName("취소한 항목은 실행하지 않는다")
+    void cancelled() {
+        TimerWheel<String> wheel = new TimerWheel<>(8);
+        wheel.schedule("a", 2).cancel();
+        wheel.schedule("b", 2);
+        List<String> expired = new ArrayList<>();
+
+        wheel.expire(2, expired::add);
+
+        assertThat(expired).containsExactly("b");
+    }
+
+    @Test
+    @DisplayName("슬롯 수는 2의 거듭제곱이어야 한다")
+    void wheelSize() {
+        assertThatThrownBy(() -> new TimerWheel<String>(100)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ftiland.travelrental.common.ownership;
+
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+import com.ftiland.travelrental.common.exception.ExceptionCode;
+import com.ftiland.travelrental.product.repository.ProductRepository;
+import com.ftiland.travelrental.reservation.repository.ReservationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class OwnershipVerifierTest {
+
+    private static final String PRODUCT_ID = "91052a17-bca6-4fde-a586-a1d179ad3463";
+    private static final String RESERVATION_ID = "3c1a1a2e-0d7b-4d9e-9f0e-7a3b5b8f2d11";
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @InjectMocks
+    private OwnershipVerifier ownershipVerifier;
+
+    @Test
+    @DisplayName("상품 소유자 확인 성공 - exists 쿼리 한 번")
+    void verifyProductOwner_SUCCESS() {
+        given(productRepository.existsByProductIdAndMemberMemberId(PRODUCT_ID, 1L))
+                .willReturn(true);
+
+        assertDoesNotThrow(() -> ownershipVerifier.verifyProductOwner(PRODUCT_ID, 1L));
+    }
+
+    @Test
+    @DisplayName("상품 소유자 확인 실패 - 작성자일치하지 않음")
+    void verifyProductOwner_FAIL_UNAUTHORIZED() {
+        given(productRepository.existsByProductIdAndMemberMemberId(PRODUCT_ID, 2L))
+                .willReturn(false);
+        given(productRepository.existsById(PRODUCT_ID))
+                .willReturn(true);
+
+        BusinessLogicException exception = assertThrows(BusinessLogicException.class,
+                () -> ownershipVerifier.verifyProductOwner(PRODUCT_ID, 2L));
+
+        assertThat(exception.getExceptionCode()).isEqualTo(ExceptionCode.UNAUTHORIZED);
+    }
+
+    @Test
+    @DisplayName("상품 소유자 확인 실패 - 상품 없음")
+    void verifyProductOwner_FAIL_PRODUCT_NOT_FOUND() {
+        given(productRepository.existsByProductIdAndMemberMemberId(PRODUCT_ID, 1L))
+                .willReturn(false);
+        given(productRepository.existsById(PRODUCT_ID))
+                .willReturn(false);
+
+        BusinessLogicException exception = assertThrows(BusinessLogicException.class,
+                () -> ownershipVerifier.verifyProductOwner(PRODUCT_ID, 1L));
+
+        assertThat(exception.getExceptionCode()).isEqualTo(ExceptionCode.PRODUCT_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("임대자 예약 확인 실패 - 다른 상품의 예약")
+    void verifyLender_FAIL_UNAUTHORIZED() {
+        given(reservationRepository.existsLentReservation(RESERVATION_ID, PRODUCT_ID, 1L))
+                .willReturn(false);
+        given(reservationRepository.existsById(RESERVATION_ID))
+                .willReturn(true);
+
+        BusinessLogicException exception = assertThrows(BusinessLogicException.class,
+                () -> ownershipVerifier.verifyLender(RESERVATION_ID, PRODUCT_ID, 1L));
+
+        assertThat(exception.getExceptionCode()).isEqualTo(ExceptionCode.UNAUTHORIZED);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ftiland.travelrental.common.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("capacity만큼 연속으로 허용하고 이후에는 토큰 하나가 찰 때까지 기다리게 한다")
+    void burstThenWait() {
+        TokenBucket bucket = new TokenBucket(3, 1);
+        long now = 10 * SECOND;
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isEqualTo(SECOND);
+
+        assertThat(bucket.tryAcquire(now + SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryAcquire(now + SECOND)).isZero();
+        assertThat(bucket.isFull(now + SECOND)).isFalse();
+        assertThat(bucket.isFull(now + 4 * SECOND)).isTrue();
+    }
+
+    @Test
+    @DisplayName("오래 쉬어도 capacity 이상 쌓이지 않는다")
+    void doesNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10);
+        long now = 100 * SECOND;
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (bucket.tryAcquire(now) == 0) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 가져가도 capacity를 넘겨 허용하지 않는다")
+    void concurrentAcquire() throws Exception {
+        int capacity = 100;
+        TokenBucket bucket = new TokenBucket(capacity, 0.001);
+        long now = SECOND;
+        AtomicInteger allowed = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    if (bucket.tryAcquire(now) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(allowed.get()).isEqualTo(capacity);
+    }
+}
@@ -0,0 +1,63 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRefreshTokenStoreTest {
+
+    private static final long GRACE = 10_000;
+
+    private final InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore();
+    private final long expiresAt = System.currentTimeMillis() + 60_000;
+
+    @Test
+    @DisplayName("현재 토큰으로만 회전할 수 있고 이전 토큰은 폐기 목록에 들어간다")
+    void rotate() {
+        store.register("family", "jti-1", expiresAt);
+
+        assertThat(store.rotate("family", "jti-1", expiresAt, "jti-2", expiresAt, GRACE).getJti()).isEqualTo("jti-2");
+        assertThat(store.isRevoked("jti-1")).isTrue();
+        assertThat(store.rotate("family", "jti-2", expiresAt, "jti-3", expiresAt, GRACE).getJti()).isEqualTo("jti-3");
+    }
+
+    @Test
+    @DisplayName("유예 시간 안에 직전 토큰이 다시 들어오면 가족을 유지하고 현재 토큰을 돌려준다")
+    void graceReturnsCurrent() {
+        store.register("family", "jti-1", expiresAt);
+        store.rotate("family", "jti-1", expiresAt, "jti-2", expiresAt, GRACE);
+
+        RefreshTokenStore.Rotation again = store.rotate("family", "jti-1", expiresAt, "jti-x", expiresAt, GRACE);
+
+        assertThat(again.getJti()).isEqualTo("jti-2");
+        assertThat(again.getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(store.rotate("family", "jti-2", expiresAt, "jti-3", expiresAt, GRACE).getJti()).isEqualTo("jti-3");
+    }
+
+    @Test
+    @DisplayName("유예 시간이 지났거나 더 오래된 토큰을 다시 쓰면 가족 전체가 폐기된다")
+    void reuseRevokesFamily() {
+        store.register("family", "jti-1", expiresAt);
+        store.rotate("family", "jti-1", expiresAt, "jti-2", expiresAt, GRACE);
+        store.rotate("family", "jti-2", expiresAt, "jti-3", expiresAt, GRACE);
+
+        // jti-1은 직전 토큰이 아니다.
+        assertThat(store.rotate("family", "jti-1", expiresAt, "jti-x", expiresAt, GRACE)).isNull();
+        // 정상 사용자의 최신 토큰도 더 이상 쓸 수 없다.
+        assertThat(store.rotate("family", "jti-3", expiresAt, "jti-4", expiresAt, GRACE)).isNull();
+
+        store.register("other", "jti-1", expiresAt);
+        store.rotate("other", "jti-1", expiresAt, "jti-2", expiresAt, 0);
+        // 유예 시간이 이미 지난 것과 같다.
+        assertThat(store.rotate("other", "jti-1", expiresAt, "jti-x", expiresAt, -1)).isNull();
+    }
+
+    @Test
+    @DisplayName("만료된 가족은 회전되지 않는다")
+    void expiredFamily() {
+        store.register("family", "jti-1", System.currentTimeMillis() - 1);
+
+        assertThat(store.rotate("family", "jti-1", expiresAt, "jti-2", expiresAt, GRACE)).isNull();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtClaimsCacheTest {
+
+    @Test
+    @DisplayName("가득 차면 가장 오래 쓰이지 않은 항목 하나만 내보낸다")
+    void evictsLeastRecentlyUsed() {
+        JwtClaimsCache cache = new JwtClaimsCache(3);
+        cache.put("token-1", claims(60_000));
+        cache.put("token-2", claims(60_000));
+        cache.put("token-3", claims(60_000));
+        // token-1을 읽었으므로 가장 오래 쓰이지 않은 것은 token-2가 된다.
+        assertThat(cache.get("token-1")).isNotNull();
+
+        cache.put("token-4", claims(60_000));
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("token-2")).isNull();
+        assertThat(cache.get("token-1")).isNotNull();
+        assertThat(cache.get("token-3")).isNotNull();
+        assertThat(cache.get("token-4")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("만료된 항목은 돌려주지 않고 지운다")
+    void expiredEntry() {
+        JwtClaimsCache cache = new JwtClaimsCache(3);
+        cache.put("token-1", claims(-1_000));
+
+        assertThat(cache.get("token-1")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private Claims claims(long expiresInMillis) {
+        return Jwts.claims().setExpiration(new Date(System.currentTimeMillis() + expiresInMillis));
+    }
+}
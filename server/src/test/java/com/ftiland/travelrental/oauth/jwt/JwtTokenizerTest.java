@@ -0,0 +1,100 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.InvalidClaimException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenizerTest {
+
+    private JwtTokenizer jwtTokenizer;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenizer = new JwtTokenizer();
+        ReflectionTestUtils.setField(jwtTokenizer, "secretKey", "test-secret-key-test-secret-key-0123456789");
+        ReflectionTestUtils.setField(jwtTokenizer, "claimsCacheMaxSize", 100);
+        jwtTokenizer.init();
+    }
+
+    @Test
+    @DisplayName("한 번 검증한 토큰은 캐시된 claims를 그대로 돌려준다")
+    void cachedClaims() {
+        String token = accessToken(new Date(System.currentTimeMillis() + 60_000));
+
+        Claims first = jwtTokenizer.getVerifiedClaims(token);
+        Claims second = jwtTokenizer.getVerifiedClaims(token);
+
+        assertThat(first.get("memberId", Integer.class)).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("만료된 토큰은 ExpiredJwtException으로 실패한다")
+    void expiredToken() {
+        String token = accessToken(new Date(System.currentTimeMillis() - 1_000));
+
+        assertThatThrownBy(() -> jwtTokenizer.getVerifiedClaims(token))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("서명이 바뀐 토큰은 캐시에 걸리지 않고 검증에 실패한다")
+    void tamperedToken() {
+        String token = accessToken(new Date(System.currentTimeMillis() + 60_000));
+        jwtTokenizer.getVerifiedClaims(token);
+
+        // 서명의 첫 글자를 바꾼다. 마지막 글자는 패딩 비트만 바뀔 수 있어 피한다.
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String tampered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A') + token.substring(signatureStart + 1);
+
+        assertThatThrownBy(() -> jwtTokenizer.getVerifiedClaims(tampered))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    @DisplayName("refresh token은 access token으로 검증되지 않는다")
+    void refreshTokenAsAccessToken() {
+        String token = jwtTokenizer.generateRefreshToken(Map.of("memberId", 1), "a@b.com",
+                new Date(System.currentTimeMillis() + 60_000), jwtTokenizer.getBase64EncodedSecretKey());
+
+        assertThatThrownBy(() -> jwtTokenizer.getVerifiedClaims(token))
+                .isInstanceOf(InvalidClaimException.class);
+        assertThat(jwtTokenizer.getRefreshClaims(token).getSubject()).isEqualTo("a@b.com");
+    }
+
+    @Test
+    @DisplayName("access token은 refresh token으로 검증되지 않는다")
+    void accessTokenAsRefreshToken() {
+        String token = accessToken(new Date(System.currentTimeMillis() + 60_000));
+
+        assertThatThrownBy(() -> jwtTokenizer.getRefreshClaims(token))
+                .isInstanceOf(InvalidClaimException.class);
+    }
+
+    @Test
+    @DisplayName("기존 시그니처로 만든 토큰도 미리 만든 키로 검증된다")
+    void legacySignature() {
+        String base64 = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
+        String token = jwtTokenizer.generateRefreshToken("a@b.com", new Date(System.currentTimeMillis() + 60_000), base64);
+
+        assertThat(jwtTokenizer.getClaims(token).getBody().getSubject()).isEqualTo("a@b.com");
+        assertThat(jwtTokenizer.getClaims(token, base64).getBody().getSubject()).isEqualTo("a@b.com");
+    }
+
+    private String accessToken(Date expiration) {
+        return jwtTokenizer.generateAccessToken(Map.of("memberId", 1), "a@b.com", expiration,
+                jwtTokenizer.getBase64EncodedSecretKey());
+    }
+}
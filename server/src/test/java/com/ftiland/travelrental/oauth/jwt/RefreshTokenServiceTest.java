@@ -0,0 +1,93 @@
+package com.ftiland.travelrental.oauth.jwt;
+
+import com.ftiland.travelrental.common.exception.BusinessLogicException;
+import com.ftiland.travelrental.common.exception.ExceptionCode;
+import com.ftiland.travelrental.member.dto.MemberSummary;
+import com.ftiland.travelrental.member.service.MemberService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private MemberService memberService;
+
+    private JwtTokenizer jwtTokenizer;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenizer = new JwtTokenizer();
+        ReflectionTestUtils.setField(jwtTokenizer, "secretKey", "test-secret-key-test-secret-key-0123456789");
+        ReflectionTestUtils.setField(jwtTokenizer, "accessTokenExpirationMinutes", 30);
+        ReflectionTestUtils.setField(jwtTokenizer, "refreshTokenExpirationMinutes", 30);
+        ReflectionTestUtils.setField(jwtTokenizer, "claimsCacheMaxSize", 100);
+        jwtTokenizer.init();
+
+        given(memberService.findMemberSummary(anyLong())).willReturn(new MemberSummary(1L, "member@test.com", "member"));
+
+        refreshTokenService = new RefreshTokenService(jwtTokenizer, new InMemoryRefreshTokenStore(), memberService);
+        ReflectionTestUtils.setField(refreshTokenService, "graceMillis", 10_000L);
+    }
+
+    @Test
+    @DisplayName("같은 refresh token으로 동시에 요청해도 모두 성공하고 같은 후속 토큰을 받는다")
+    void concurrentRefresh() throws Exception {
+        String refreshToken = refreshTokenService.issue(1L, "member@test.com");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RefreshTokenService.Tokens>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return refreshTokenService.refresh(refreshToken);
+            }));
+        }
+        start.countDown();
+
+        List<String> jtis = new ArrayList<>();
+        for (Future<RefreshTokenService.Tokens> future : futures) {
+            jtis.add(jwtTokenizer.getRefreshClaims(future.get(5, TimeUnit.SECONDS).getRefreshToken()).getId());
+        }
+        executor.shutdown();
+
+        assertThat(jtis).hasSize(threads).containsOnly(jtis.get(0));
+        // 가족이 폐기되지 않았으므로 받은 후속 토큰으로 계속 회전할 수 있다.
+        String next = refreshTokenService.refresh(refreshTokenService.refresh(refreshToken).getRefreshToken()).getRefreshToken();
+        assertThat(jwtTokenizer.getRefreshClaims(next).getId()).isNotEqualTo(jtis.get(0));
+    }
+
+    @Test
+    @DisplayName("유예 시간이 지난 뒤 이전 토큰을 다시 쓰면 가족 전체가 폐기된다")
+    void reuseAfterGrace() {
+        ReflectionTestUtils.setField(refreshTokenService, "graceMillis", -1L);
+        String refreshToken = refreshTokenService.issue(1L, "member@test.com");
+        String next = refreshTokenService.refresh(refreshToken).getRefreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.refresh(refreshToken))
+                .isInstanceOf(BusinessLogicException.class)
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.REFRESH_TOKEN_REUSED);
+        assertThatThrownBy(() -> refreshTokenService.refresh(next))
+                .isInstanceOf(BusinessLogicException.class);
+    }
+}
@@ -3,6 +3,7 @@ package com.ftiland.travelrental.product.service;
 import com.ftiland.travelrental.category.dto.CategoryDto;
 import com.ftiland.travelrental.common.exception.BusinessLogicException;
 import com.ftiland.travelrental.common.exception.ExceptionCode;
+import com.ftiland.travelrental.image.service.ImageProductService;
 import com.ftiland.travelrental.member.entity.Member;
 import com.ftiland.travelrental.member.service.MemberService;
 import com.ftiland.travelrental.product.dto.CreateProduct;
@@ -37,6 +38,8 @@ class ProductServiceTest {
     private MemberService memberService;
     @Mock
     private ProductCategoryService productCategoryService;
+    @Mock
+    private ImageProductService imageProductService;
 
     @InjectMocks
     private ProductService productService;
@@ -156,9 +159,6 @@ class ProductServiceTest {
                         .categoryId("7c08b19f-5846-4b6b-a11e-861d004f8151")
                         .title("캠핑").build());
 
-        given(memberService.findMember(any()))
-                .willReturn(member);
-
         given(productRepository.findById(anyString()))
                 .willReturn(Optional.of(product));
 
@@ -172,7 +172,7 @@ class ProductServiceTest {
         // when
         UpdateProduct.Response response = productService.updateProduct(request,
                 product.getProductId(),
-                2L);
+                List.of());
 
         // then
         verify(productCategoryService, times(1))
@@ -197,57 +197,4 @@ class ProductServiceTest {
                 .ifPresentOrElse(minimumRentalPeriod -> assertThat(captor.getValue().getMinimumRentalPeriod()).isEqualTo(minimumRentalPeriod),
                         () -> assertThat(captor.getValue().getMinimumRentalPeriod()).isEqualTo(product.getMinimumRentalPeriod()));
     }
-
-    @Test
-    @DisplayName("상품 수정 실패 - 작성자일치하지 않음")
-    void updateProduct_FAIL_() {
-        // given
-        Member member1 = Member.builder()
-                .memberId(1L)
-                .email("test@test.com")
-                .displayName("이명규")
-                .latitude(37.5793493362539)
-                .longitude(126.91794995956589).build();
-
-        Member member2 = Member.builder()
-                .memberId(2L)
-                .email("test2@test.com")
-                .displayName("이명규2")
-                .latitude(37.5793493362539)
-                .longitude(126.91794995956589).build();
-
-        Product product = Product.builder()
-                .productId("91052a17-bca6-4fde-a586-a1d179ad3463")
-                .title("원래제목입니다.")
-                .content("원래내용입니다.")
-                .baseFee(1)
-                .feePerDay(1)
-                .overdueFee(1)
-                .member(member2).build();
-
-        List<CategoryDto> preCategories = List.of(CategoryDto.builder()
-                        .categoryId("318baf68-71c8-410c-8e1d-21852fbf088e")
-                        .title("등산").build(),
-                CategoryDto.builder()
-                        .categoryId("7c08b19f-5846-4b6b-a11e-861d004f8151")
-                        .title("캠핑").build());
-
-        given(memberService.findMember(any()))
-                .willReturn(member1);
-
-        given(productRepository.findById(anyString()))
-                .willReturn(Optional.of(product));
-
-        UpdateProduct.Request request = new UpdateProduct.Request(
-                "제목", 1000, 500, 1000, "내용", 3,
-                List.of("318baf68-71c8-410c-8e1d-21852fbf088e", "7c08b19f-5846-4b6b-a11e-861d004f8151")
-        );
-
-        // when
-        BusinessLogicException exception = assertThrows(BusinessLogicException.class,
-                () -> productService.updateProduct(request, product.getProductId(), 2L));
-
-        // then
-        assertThat(exception.getExceptionCode()).isEqualTo(ExceptionCode.UNAUTHORIZED);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.ftiland.travelrental.reservation.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PricingSnapshotTest {
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+
+    @Test
+    @DisplayName("최소 대여기간을 넘긴 날짜만큼 일일요금이 붙는다")
+    void totalFee() {
+        int days = FeeCalculator.rentalDays(day("2023-01-30"), day("2023-02-03"));
+
+        assertThat(days).isEqualTo(5);
+        assertThat(FeeCalculator.meetsMinimumPeriod(3, days)).isTrue();
+        assertThat(FeeCalculator.totalFee(10000, 2000, 3, days)).isEqualTo(14000);
+    }
+
+    @Test
+    @DisplayName("예약된 기간과 겹치는 기간만 예약 불가로 판단한다")
+    void isBooked() {
+        // 저장된 endDate는 종료일 다음 날이고, maxEndDays는 누적 최대값이다.
+        PricingSnapshot snapshot = new PricingSnapshot(10000, 2000, 1,
+                new long[]{day("2023-03-01"), day("2023-03-03"), day("2023-03-20")},
+                new long[]{day("2023-03-15"), day("2023-03-15"), day("2023-03-25")});
+
+        assertThat(snapshot.isBooked(day("2023-03-10"), day("2023-03-12"))).isTrue();
+        assertThat(snapshot.isBooked(day("2023-03-16"), day("2023-03-18"))).isFalse();
+        assertThat(snapshot.isBooked(day("2023-03-18"), day("2023-03-19"))).isTrue();
+        assertThat(snapshot.isBooked(day("2023-02-01"), day("2023-02-10"))).isFalse();
+    }
+}
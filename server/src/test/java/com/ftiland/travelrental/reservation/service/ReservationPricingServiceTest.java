@@ -0,0 +1,90 @@
+package com.ftiland.travelrental.reservation.service;
+
+import com.ftiland.travelrental.product.entity.Product;
+import com.ftiland.travelrental.product.service.ProductService;
+import com.ftiland.travelrental.reservation.dto.ReservedPeriodDto;
+import com.ftiland.travelrental.reservation.pricing.PricingSnapshot;
+import com.ftiland.travelrental.reservation.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.ftiland.travelrental.reservation.service.ReservationPricingService.PRICING_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationPricingServiceTest {
+
+    private static final String PRODUCT_ID = "product";
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ProductService productService;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private ReservationPricingService pricingService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        pricingService = new ReservationPricingService(reservationRepository, productService, cacheManager);
+        given(productService.findProduct(PRODUCT_ID)).willReturn(Product.builder()
+                .baseFee(10000).feePerDay(2000).minimumRentalPeriod(1).build());
+    }
+
+    @Test
+    @DisplayName("조회한 스냅샷을 캐시하고 다음 조회는 DB를 읽지 않는다")
+    void cachesSnapshot() {
+        given(reservationRepository.findReservedPeriods(eq(PRODUCT_ID), any(), any())).willReturn(List.of());
+
+        PricingSnapshot first = pricingService.getSnapshot(PRODUCT_ID);
+        PricingSnapshot second = pricingService.getSnapshot(PRODUCT_ID);
+
+        assertThat(second).isSameAs(first);
+        verify(reservationRepository, times(1)).findReservedPeriods(eq(PRODUCT_ID), any(), any());
+    }
+
+    @Test
+    @DisplayName("읽는 도중 예약이 바뀌어 evict되면 커밋 전에 읽은 스냅샷은 캐시에 남지 않는다")
+    void staleSnapshotIsNotCached() {
+        // 기간을 읽은 직후 다른 요청의 예약이 커밋되고 캐시를 지운다.
+        given(reservationRepository.findReservedPeriods(eq(PRODUCT_ID), any(), any())).willAnswer(invocation -> {
+            pricingService.evictSnapshot(PRODUCT_ID);
+            return List.<ReservedPeriodDto>of();
+        });
+
+        pricingService.getSnapshot(PRODUCT_ID);
+
+        Cache cache = cacheManager.getCache(PRICING_CACHE);
+        assertThat(cache.get(PRODUCT_ID)).isNull();
+    }
+
+    @Test
+    @DisplayName("스냅샷을 넣은 뒤 예약이 바뀌면 evict가 지운다")
+    void evictAfterPut() {
+        given(reservationRepository.findReservedPeriods(eq(PRODUCT_ID), any(), any())).willReturn(
+                List.of(),
+                List.of(new ReservedPeriodDto(LocalDate.parse("2023-03-01"), LocalDate.parse("2023-03-05"))));
+
+        pricingService.getSnapshot(PRODUCT_ID);
+        pricingService.evictSnapshot(PRODUCT_ID);
+        PricingSnapshot snapshot = pricingService.getSnapshot(PRODUCT_ID);
+
+        assertThat(snapshot.getStartDays()).hasSize(1);
+        assertThat(cacheManager.getCache(PRICING_CACHE).get(PRODUCT_ID, PricingSnapshot.class)).isSameAs(snapshot);
+    }
+}